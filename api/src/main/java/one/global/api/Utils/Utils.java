@@ -1,6 +1,16 @@
 package one.global.api.Utils;
 
 import one.global.api.domain.enums.State;
+import one.global.api.domain.exception.DeviceVersionConflictException;
+import one.global.api.domain.exception.InvalidDeviceParameter;
+import one.global.api.domain.model.ChangeToken;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 public interface Utils {
@@ -20,4 +30,78 @@ public interface Utils {
     static State getValidState(String state) {
         return state != null && !state.isBlank() ? State.valueOf(state.toUpperCase()) : null;
     }
+
+    static Set<String> getProvidedValues(List<String> values) {
+        return values == null ? Set.of() : values.stream()
+                .filter(Utils::isProvided)
+                .map(String::strip)
+                .collect(Collectors.toSet());
+    }
+
+    static Set<State> getValidStates(List<String> states) {
+        return getProvidedValues(states).stream()
+                .map(Utils::getValidState)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(State.class)));
+    }
+
+    static String toETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /*Version carried by an If-Match header, null when absent or "*". Tags this API never issued cannot match.*/
+    static Long parseETag(String eTag) {
+        if (!isProvided(eTag) || eTag.trim().equals("*")) {
+            return null;
+        }
+        String value = eTag.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to the mismatch below
+            }
+        }
+        throw new DeviceVersionConflictException("If-Match " + eTag + " does not match the current device version");
+    }
+
+    static String encodeCursor(Long lastSeenId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("id:" + lastSeenId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decodeCursor(String cursor) {
+        if (!isProvided(cursor)) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("id:")) {
+                throw new InvalidDeviceParameter("Invalid pagination cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(3));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDeviceParameter("Invalid pagination cursor: " + cursor, e);
+        }
+    }
+
+    static String encodeChangeToken(ChangeToken token) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("chg:" + token.epoch() + ":" + token.xid() + ":" + token.seq())
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChangeToken decodeChangeToken(String token) {
+        if (!isProvided(token)) {
+            return ChangeToken.START;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4 || !parts[0].equals("chg")) {
+                throw new InvalidDeviceParameter("Invalid change token: " + token);
+            }
+            return new ChangeToken(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDeviceParameter("Invalid change token: " + token, e);
+        }
+    }
 }
@@ -1,23 +1,57 @@
 package one.global.api.adapter.in;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import one.global.api.Utils.Utils;
 import one.global.api.adapter.out.DeviceMapper;
 import one.global.api.application.port.in.DeviceUseCase;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.DeletionOutcome;
+import one.global.api.domain.enums.TransitionOutcome;
+import one.global.api.domain.model.CreationResult;
+import one.global.api.domain.model.DeletionResult;
 import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.NewDevice;
+import one.global.api.domain.model.TransitionResult;
 import one.global.api.web.dto.*;
+import one.global.api.web.export.DeviceExportWriter;
+import one.global.api.web.events.SseDeviceEventPublisher;
+import one.global.api.web.export.ExportFormat;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/devices")
 @RequiredArgsConstructor
 public class DeviceController implements IDeviceController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final DeviceUseCase deviceUseCase;
     private final DeviceMapper deviceMapper;
+    private final ObjectMapper objectMapper;
+    private final SseDeviceEventPublisher sseDeviceEventPublisher;
 
 
     @Override
@@ -29,74 +63,224 @@ public class DeviceController implements IDeviceController {
                 .getResponseEntity();
     }
 
+    @Override
+    @PostMapping("/create/batch")
+    public ResponseEntity<AppResponse<BatchResult<DeviceResponseDTO>>> createDevices(
+            @RequestBody List<DeviceRequestDTO> deviceRequestDTOs) {
+        List<NewDevice> devices = deviceRequestDTOs == null ? null : deviceRequestDTOs.stream()
+                .map(deviceMapper::fromDeviceRequestDTOToNewDevice)
+                .toList();
+        CreationResult result = deviceUseCase.createDevices(devices);
+
+        List<DeviceResponseDTO> createdDevices = result.created().stream()
+                .map(deviceMapper::fromDeviceToDeviceResponseDTO)
+                .toList();
+        List<BatchItemError> errors = result.rejected().stream()
+                .map(deviceMapper::fromRejectionToBatchItemError)
+                .toList();
+        var batchResponse = new BatchResult<>(createdDevices, errors);
+
+        if (createdDevices.isEmpty()) {
+            return AppResponse.<BatchResult<DeviceResponseDTO>>builder()
+                    .status(HttpStatus.BAD_REQUEST.value())
+                    .success(false)
+                    .message("No device registered - verify parameter values")
+                    .content(batchResponse)
+                    .build()
+                    .getResponseEntity();
+        }
+
+        String message = String.format("%d devices registered successfully, %d rejected",
+                createdDevices.size(), errors.size());
+        return AppResponse.created(message, batchResponse).getResponseEntity();
+    }
+
     @Override
     @GetMapping("/{id}")
-    public ResponseEntity<AppResponse<DeviceResponseDTO>> getDevice(@PathVariable Long id) {
+    public ResponseEntity<AppResponse<DeviceResponseDTO>> getDevice(@PathVariable Long id, WebRequest request) {
         Device device = deviceUseCase.getDeviceById(id);
+        if (request.checkNotModified(Utils.toETag(device.getVersion()))) {
+            return null;
+        }
         DeviceResponseDTO deviceResponseDTO = deviceMapper.fromDeviceToDeviceResponseDTO(device);
-        return AppResponse.ok("Device retrieved successfully",deviceResponseDTO).getResponseEntity();
+        return withETag(AppResponse.ok("Device retrieved successfully",deviceResponseDTO).getResponseEntity(), device);
     }
 
     @Override
     @GetMapping
-    public ResponseEntity<AppResponse<List<DeviceResponseDTO>>> getDevices(
-            @RequestParam(required = false) String brand,
-            @RequestParam(required = false) String state,
+    public ResponseEntity<DevicePageResponse> getDevices(
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> state,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size)  {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean withTotal)  {
 
-        var validState = Utils.getValidState(state);
+        var filter = new DeviceFilter(Utils.getProvidedValues(brand), Utils.getValidStates(state), createdFrom, createdTo);
+        var deviceSort = DeviceSort.from(sort);
+
+        if (after != null) {
+            return getDevicesAfter(filter, deviceSort, after, size);
+        }
 
         PaginatedResponse<Device> paginatedDevices = deviceUseCase
-                .getAllDevices(brand, validState, page, size);
+                .getAllDevices(filter, deviceSort, page, size, withTotal);
+
+        return (withTotal
+                ? DevicePageResponse.offset("Devices retrieved successfully", paginatedDevices)
+                : DevicePageResponse.slice("Devices retrieved successfully", paginatedDevices))
+                .getResponseEntity();
 
-        List<DeviceResponseDTO> deviceResponseDTOs = paginatedDevices.getContent().stream()
+    }
+
+    private ResponseEntity<DevicePageResponse> getDevicesAfter(DeviceFilter filter, DeviceSort sort, String after, int size) {
+        PaginatedResponse<Device> devicesPage = deviceUseCase.getAllDevices(filter, sort, after, size);
+
+        return DevicePageResponse.cursor("Devices retrieved successfully", devicesPage).getResponseEntity();
+    }
+
+    @Override
+    @GetMapping("/search")
+    public ResponseEntity<AppResponse<List<DeviceResponseDTO>>> searchDevices(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "contains") String mode,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        List<DeviceResponseDTO> devices = deviceUseCase.searchDevices(q, SearchMode.from(mode), limit).stream()
                 .map(deviceMapper::fromDeviceToDeviceResponseDTO)
                 .toList();
+        return AppResponse.ok("Devices retrieved successfully", devices).getResponseEntity();
+    }
+
+    @Override
+    @GetMapping("/summary")
+    public ResponseEntity<AppResponse<DeviceSummaryResponseDTO>> getDeviceSummary() {
+        DeviceSummaryResponseDTO summary = deviceMapper.fromDeviceSummaryToResponseDTO(deviceUseCase.getDeviceSummary());
 
-        AppResponse<List<DeviceResponseDTO>> finalAppResponse = AppResponse.ok("Devices retrieved successfully", deviceResponseDTOs)
-                .buildParametersPagination(
-                        paginatedDevices.getPageNumber(),
-                        paginatedDevices.getPageSize(),
-                        paginatedDevices.getTotalElements(),
-                        paginatedDevices.getTotalPages()
-                );
+        return AppResponse.ok("Device summary retrieved successfully", summary).getResponseEntity();
+    }
+
+    @Override
+    @GetMapping("/changes")
+    public ResponseEntity<AppResponse<DeviceChangesResponseDTO>> getDeviceChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        DeviceChanges deviceChanges = deviceUseCase.getDeviceChanges(since, limit);
+
+        var changes = new DeviceChangesResponseDTO(
+                deviceChanges.changes().stream().map(deviceMapper::fromDeviceChangeToDTO).toList(),
+                Utils.encodeChangeToken(deviceChanges.nextToken()), deviceChanges.hasMore());
+        return AppResponse.ok("Device changes retrieved successfully", changes).getResponseEntity();
+    }
+
+    @Override
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToDeviceEvents() {
+        return sseDeviceEventPublisher.subscribe();
+    }
+
+    @Override
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDevices(
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String state,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        var validState = Utils.getValidState(state);
+        var exportFormat = ExportFormat.from(format);
 
-        return finalAppResponse.getResponseEntity();
+        StreamingResponseBody body = outputStream -> {
+            var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+            try (DeviceExportWriter exportWriter = exportFormat.open(writer, objectMapper)) {
+                deviceUseCase.exportDevices(brand, validState, device -> {
+                    try {
+                        exportWriter.write(deviceMapper.fromDeviceToDeviceResponseDTO(device));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
 
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=devices." + exportFormat.getExtension())
+                .body(body);
     }
 
     @Override
     @PutMapping("/{id}")
     public ResponseEntity<AppResponse<DeviceResponseDTO>> updateDevice(@PathVariable Long id,
-                                                                       @RequestBody DeviceUpdateDTO updateDTO) {
+                                                                       @RequestBody DeviceUpdateDTO updateDTO,
+                                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         var validState = Utils.getValidState(updateDTO.state());
 
-        Device updatedDevice = deviceUseCase.updateDevice(id, updateDTO.name(), updateDTO.brand(), validState);
+        Device updatedDevice = deviceUseCase.updateDevice(id, updateDTO.name(), updateDTO.brand(), validState,
+                Utils.parseETag(ifMatch));
         DeviceResponseDTO deviceResponseDTO = deviceMapper.fromDeviceToDeviceResponseDTO(updatedDevice);
 
-       return AppResponse.ok("Device updated successfully", deviceResponseDTO).getResponseEntity();
+       return withETag(AppResponse.ok("Device updated successfully", deviceResponseDTO).getResponseEntity(), updatedDevice);
 
     }
 
     @Override
     @PatchMapping("/{id}")
     public ResponseEntity<AppResponse<DeviceResponseDTO>> partiallyUpdateDevice(@PathVariable Long id,
-                                                                                 @RequestBody DeviceUpdateDTO patchDTO) {
+                                                                                 @RequestBody DeviceUpdateDTO patchDTO,
+                                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         var validState = Utils.getValidState(patchDTO.state());
 
-        Device updatedDevice = deviceUseCase.partiallyUpdateDevice(id, patchDTO.name(), patchDTO.brand(), validState);
+        Device updatedDevice = deviceUseCase.partiallyUpdateDevice(id, patchDTO.name(), patchDTO.brand(), validState,
+                Utils.parseETag(ifMatch));
         DeviceResponseDTO deviceResponseDTO = deviceMapper.fromDeviceToDeviceResponseDTO(updatedDevice);
 
-        return AppResponse.ok("Device partially updated successfully", deviceResponseDTO).getResponseEntity();
+        return withETag(AppResponse.ok("Device partially updated successfully", deviceResponseDTO).getResponseEntity(), updatedDevice);
+    }
+
+    @Override
+    @PatchMapping("/state/batch")
+    public ResponseEntity<AppResponse<List<DeviceTransitionResponseDTO>>> changeDevicesState(
+            @RequestBody DeviceStateTransitionDTO transitionDTO) {
+        var validState = Utils.getValidState(transitionDTO.state());
+
+        List<TransitionResult> results = deviceUseCase.changeDevicesState(transitionDTO.ids(), validState);
+
+        Map<TransitionOutcome, Long> outcomes = results.stream().collect(Collectors.groupingBy(
+                TransitionResult::outcome, () -> new EnumMap<>(TransitionOutcome.class), Collectors.counting()));
+        String message = String.format("%d devices changed, %d unchanged, %d not found",
+                outcomes.getOrDefault(TransitionOutcome.CHANGED, 0L), outcomes.getOrDefault(TransitionOutcome.UNCHANGED, 0L),
+                outcomes.getOrDefault(TransitionOutcome.NOT_FOUND, 0L));
+        return AppResponse.ok(message, results.stream().map(deviceMapper::fromTransitionResultToResponseDTO).toList())
+                .getResponseEntity();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<AppResponse<Object>> deleteDevice(@PathVariable Long id) {
-        deviceUseCase.deleteDevice(id);
+    public ResponseEntity<AppResponse<Object>> deleteDevice(@PathVariable Long id,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        deviceUseCase.deleteDevice(id, Utils.parseETag(ifMatch));
 
         return AppResponse.deleted("Device deleted successfully").getResponseEntity();
     }
 
+    @Override
+    @PostMapping("/delete/batch")
+    public ResponseEntity<AppResponse<List<DeviceDeletionResponseDTO>>> deleteDevices(@RequestBody List<Long> ids) {
+        List<DeletionResult> results = deviceUseCase.deleteDevices(ids);
+
+        long deleted = results.stream().filter(result -> result.outcome() == DeletionOutcome.DELETED).count();
+        String message = String.format("%d devices deleted, %d not deleted", deleted, results.size() - deleted);
+        return AppResponse.ok(message, results.stream().map(deviceMapper::fromDeletionResultToResponseDTO).toList())
+                .getResponseEntity();
+    }
+
+    private static <T> ResponseEntity<T> withETag(ResponseEntity<T> response, Device device) {
+        return ResponseEntity.status(response.getStatusCode())
+                .eTag(Utils.toETag(device.getVersion()))
+                .body(response.getBody());
+    }
+
 }
@@ -8,14 +8,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import one.global.api.web.dto.AppResponse;
+import one.global.api.web.dto.BatchResult;
+import one.global.api.web.dto.DeviceChangesResponseDTO;
+import one.global.api.web.dto.DeviceDeletionResponseDTO;
+import one.global.api.web.dto.DevicePageResponse;
 import one.global.api.web.dto.DeviceRequestDTO;
 import one.global.api.web.dto.DeviceResponseDTO;
+import one.global.api.web.dto.DeviceStateTransitionDTO;
+import one.global.api.web.dto.DeviceSummaryResponseDTO;
+import one.global.api.web.dto.DeviceTransitionResponseDTO;
 import one.global.api.web.dto.DeviceUpdateDTO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Tag(name = "Devices", description = "API for managing device resouces")
@@ -36,11 +47,28 @@ public interface IDeviceController {
     ResponseEntity<AppResponse<DeviceResponseDTO>> createDevice(@RequestBody DeviceRequestDTO deviceRequestDTO);
 
 
+    @Operation(summary = "Create devices in bulk", description = "Adds up to 10000 devices in a single request. " +
+            "Each device is validated on its own; invalid ones are reported by their index in the request and the valid ones are still registered.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Valid devices created successfully, rejected ones listed in content.errors",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "400", description = "No valid device provided",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class)))
+    })
+    ResponseEntity<AppResponse<BatchResult<DeviceResponseDTO>>> createDevices(@RequestBody List<DeviceRequestDTO> deviceRequestDTOs);
+
+
     @Operation(summary = "Get a device by its ID", description = "Retrieves detailed information for a single device.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Device found successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Device unchanged since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Device not found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class))),
@@ -49,23 +77,108 @@ public interface IDeviceController {
                             schema = @Schema(implementation = AppResponse.class)))
     })
     ResponseEntity<AppResponse<DeviceResponseDTO>> getDevice(
-            @Parameter(description = "ID of the device to retrieve", required = true) Long id);
+            @Parameter(description = "ID of the device to retrieve", required = true) Long id,
+            @Parameter(hidden = true) WebRequest request);
 
 
     @Operation(summary = "Get all devices", description = "Retrieves a list of all registered devices or list all using parameters, with pagination.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of devices retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DevicePageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid state, date range or sort key",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class)))
     })
-    ResponseEntity<AppResponse<List<DeviceResponseDTO>>> getDevices(
+    ResponseEntity<DevicePageResponse> getDevices(
+            @Parameter(description = "Filter by brand. Repeat the parameter or separate values with commas to match any of them", example = "Apple") List<String> brand,
+            @Parameter(description = "Filter by state. Repeat the parameter or separate values with commas to match any of them", example = "AVAILABLE") List<String> state,
+            @Parameter(description = "Only devices created on or after this date (yyyy-MM-dd)", example = "2025-01-01") LocalDate createdFrom,
+            @Parameter(description = "Only devices created on or before this date (yyyy-MM-dd)", example = "2025-12-31") LocalDate createdTo,
+            @Parameter(description = "Sort key and optional direction: id, name, brand or creationDate, then asc or desc. " +
+                    "Cursor pagination only supports id", example = "creationDate,desc") String sort,
+            @Parameter(description = "Page number (0-indexed)", example = "0") int page,
+            @Parameter(description = "Number of items per page", example = "10")  int size,
+            @Parameter(description = "Opaque cursor returned as nextCursor by the previous page. " +
+                    "When present (send it empty for the first page) keyset pagination is used and page is ignored") String after,
+            @Parameter(description = "Include totalElements/totalPages. When false only hasNext is returned", example = "true") boolean withTotal);
+
+
+
+    @Operation(summary = "Search devices by name or brand", description = "Case-insensitive search over name and brand, " +
+            "most relevant first. prefix and contains match the term literally, fuzzy tolerates typos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching devices",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Term shorter than 3 characters, unsupported mode or limit out of range",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class)))
+    })
+    ResponseEntity<AppResponse<List<DeviceResponseDTO>>> searchDevices(
+            @Parameter(description = "Search term, at least 3 characters", example = "gala", required = true) String q,
+            @Parameter(description = "prefix, contains or fuzzy", example = "contains") String mode,
+            @Parameter(description = "Maximum number of devices returned (1-100)", example = "20") int limit);
+
+
+
+    @Operation(summary = "Device counts per state and per brand", description = "Totals overall, per state and per " +
+            "brand and state, kept in memory and reconciled with the database periodically.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Device summary",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class)))
+    })
+    ResponseEntity<AppResponse<DeviceSummaryResponseDTO>> getDeviceSummary();
+
+
+
+    @Operation(summary = "Devices changed since a token", description = "Incremental sync: devices created or updated " +
+            "since the token with their current values, and deleted ones as tombstones. Without a token every device is " +
+            "returned. Keep calling with nextToken while hasMore is true; later calls return only newer changes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed token or limit out of range",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "410", description = "Token older than the deletions still kept, or from before an in-memory store restarted; sync again without a token",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class)))
+    })
+    ResponseEntity<AppResponse<DeviceChangesResponseDTO>> getDeviceChanges(
+            @Parameter(description = "nextToken of the previous call") String since,
+            @Parameter(description = "Maximum number of changes returned (1-1000)", example = "500") int limit);
+
+
+
+    @Operation(summary = "Subscribe to device changes", description = "Server-Sent Events stream with one event per " +
+            "committed change, named CREATED, UPDATED, STATE_CHANGED or DELETED. The event id is the change sequence.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened",
+                    content = @Content(mediaType = "text/event-stream"))
+    })
+    SseEmitter subscribeToDeviceEvents();
+
+
+
+    @Operation(summary = "Export all devices", description = "Streams every device matching the optional brand/state filters " +
+            "as NDJSON (one JSON object per line) or CSV, without pagination.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devices streamed successfully",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format or invalid state",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class)))
+    })
+    ResponseEntity<StreamingResponseBody> exportDevices(
             @Parameter(description = "Filter by brand", example = "Apple") String brand,
             @Parameter(description = "Filter by state", example = "AVAILABLE") String state,
-            @Parameter(description = "Page number (0-indexed)", example = "0") int page,
-            @Parameter(description = "Number of items per page", example = "10")  int size);
+            @Parameter(description = "Output format: ndjson or csv", example = "ndjson") String format);
 
 
 
@@ -83,13 +196,17 @@ public interface IDeviceController {
             @ApiResponse(responseCode = "409", description = "Conflict, e.g., device is in use",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class)))
     })
     ResponseEntity<AppResponse<DeviceResponseDTO>> updateDevice(
             @Parameter(description = "ID of the device to update", required = true) Long id,
-            @RequestBody DeviceUpdateDTO updateDTO);
+            @RequestBody DeviceUpdateDTO updateDTO,
+            @Parameter(description = "ETag of the version being modified. Responds 412 when the device has changed since") String ifMatch);
 
 
     @Operation(summary = "Partially update device state", description = "Changes the state of a device by its ID.")
@@ -106,13 +223,33 @@ public interface IDeviceController {
             @ApiResponse(responseCode = "409", description = "Conflict, invalid state transition",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
             @ApiResponse(responseCode = "503", description = "Service unavailable",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class)))
     })
     ResponseEntity<AppResponse<DeviceResponseDTO>> partiallyUpdateDevice(
             @Parameter(description = "ID of the device to update", required = true) Long id,
-           @RequestBody DeviceUpdateDTO updateDTO);
+           @RequestBody DeviceUpdateDTO updateDTO,
+            @Parameter(description = "ETag of the version being modified. Responds 412 when the device has changed since") String ifMatch);
+
+
+    @Operation(summary = "Change the state of devices in bulk", description = "Moves up to 10000 devices to the given state " +
+            "in set-based statements. Each id is reported as CHANGED, UNCHANGED (already in that state) or NOT_FOUND.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Outcome of every requested device",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input, e.g., missing ids or invalid state",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Service unavailable",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class)))
+    })
+    ResponseEntity<AppResponse<List<DeviceTransitionResponseDTO>>> changeDevicesState(@RequestBody DeviceStateTransitionDTO transitionDTO);
 
 
     @Operation(summary = "Delete a device by its ID", description = "Removes a device from the system.")
@@ -126,11 +263,31 @@ public interface IDeviceController {
             @ApiResponse(responseCode = "409", description = "Conflict, e.g., device cannot be deleted due to its state",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
             @ApiResponse(responseCode = "503", description = "Service unavailable",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = AppResponse.class)))
     })
     ResponseEntity<AppResponse<Object>> deleteDevice(
-            @Parameter(description = "ID of the device to delete", required = true) Long id);
+            @Parameter(description = "ID of the device to delete", required = true) Long id,
+            @Parameter(description = "ETag of the version being modified. Responds 412 when the device has changed since") String ifMatch);
+
+
+    @Operation(summary = "Delete devices in bulk", description = "Deletes up to 10000 devices in set-based statements. " +
+            "Each id is reported as DELETED, NOT_FOUND or IN_USE (devices in use are kept).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Outcome of every requested device",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input, e.g., missing ids",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Service unavailable",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AppResponse.class)))
+    })
+    ResponseEntity<AppResponse<List<DeviceDeletionResponseDTO>>> deleteDevices(@RequestBody List<Long> ids);
 
 }
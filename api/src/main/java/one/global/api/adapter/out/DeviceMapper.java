@@ -1,8 +1,22 @@
 package one.global.api.adapter.out;
 
 import one.global.api.adapter.out.entity.JpaDeviceEntity;
+import one.global.api.domain.model.CreationResult;
+import one.global.api.domain.model.DeletionResult;
 import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChange;
+import one.global.api.domain.model.DeviceEvent;
+import one.global.api.domain.model.DeviceSummary;
+import one.global.api.domain.model.NewDevice;
+import one.global.api.domain.model.TransitionResult;
+import one.global.api.web.dto.BatchItemError;
+import one.global.api.web.dto.DeviceChangeDTO;
+import one.global.api.web.dto.DeviceDeletionResponseDTO;
+import one.global.api.web.dto.DeviceEventDTO;
+import one.global.api.web.dto.DeviceRequestDTO;
 import one.global.api.web.dto.DeviceResponseDTO;
+import one.global.api.web.dto.DeviceSummaryResponseDTO;
+import one.global.api.web.dto.DeviceTransitionResponseDTO;
 import org.mapstruct.*;
 
 @Mapper(componentModel = "spring")
@@ -12,11 +26,15 @@ public interface DeviceMapper {
     @Mapping(source = "brand", target = "brand")
     @Mapping(source = "state", target = "state")
     @Mapping(source = "creationDate", target = "creationDate")
+    @Mapping(target = "changeSeq", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     JpaDeviceEntity fromDeviceToJpaDeviceEntity(Device device);
 
     Device fromJpaDeviceEntityToDevice(JpaDeviceEntity jpaDeviceEntity);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "changeSeq", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     void updateEntityFromDomain(Device device, @MappingTarget JpaDeviceEntity entity);
 
     @Mapping(source = "id", target = "id")
@@ -26,6 +44,23 @@ public interface DeviceMapper {
     @Mapping(source = "creationDate", target = "creationDate", dateFormat = "yyyy-MM-dd HH:mm:ss")
     DeviceResponseDTO fromDeviceToDeviceResponseDTO(Device device);
 
+    NewDevice fromDeviceRequestDTOToNewDevice(DeviceRequestDTO deviceRequestDTO);
+
+    BatchItemError fromRejectionToBatchItemError(CreationResult.Rejection rejection);
+
+    DeviceTransitionResponseDTO fromTransitionResultToResponseDTO(TransitionResult transitionResult);
+
+    DeviceDeletionResponseDTO fromDeletionResultToResponseDTO(DeletionResult deletionResult);
+
+    DeviceSummaryResponseDTO fromDeviceSummaryToResponseDTO(DeviceSummary deviceSummary);
+
+    @Mapping(source = "occurredAt", target = "occurredAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    DeviceEventDTO fromDeviceEventToDTO(DeviceEvent deviceEvent);
+
+    @Mapping(target = "deleted", expression = "java(deviceChange.deleted())")
+    @Mapping(source = "changedAt", target = "changedAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    DeviceChangeDTO fromDeviceChangeToDTO(DeviceChange deviceChange);
+
     @ObjectFactory
     default Device createDevice(JpaDeviceEntity jpaDeviceEntity, @TargetType Class<Device> targetType) {
         return Device.reconstruct(
@@ -33,7 +68,8 @@ public interface DeviceMapper {
                 jpaDeviceEntity.getName(),
                 jpaDeviceEntity.getBrand(),
                 jpaDeviceEntity.getState(),
-                jpaDeviceEntity.getCreationDate()
+                jpaDeviceEntity.getCreationDate(),
+                jpaDeviceEntity.getVersion()
         );
     }
 
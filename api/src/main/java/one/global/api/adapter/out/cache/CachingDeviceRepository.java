@@ -0,0 +1,144 @@
+package one.global.api.adapter.out.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.ChangeToken;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceDeletion;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceStateChange;
+import one.global.api.domain.model.StateTransition;
+import one.global.api.web.dto.PaginatedResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/*Read-through cache for single device lookups. Devices are mutable, so only copies go in and out of the cache.*/
+public class CachingDeviceRepository implements DeviceRepository {
+
+    private final DeviceRepository delegate;
+    private final Cache<Long, Device> cache;
+
+    public CachingDeviceRepository(DeviceRepository delegate, Cache<Long, Device> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Device save(Device device) {
+        Device savedDevice = delegate.save(device);
+        cache.invalidate(savedDevice.getId());
+        return savedDevice;
+    }
+
+    @Override
+    public List<Device> saveAll(List<Device> devices) {
+        List<Device> savedDevices = delegate.saveAll(devices);
+        savedDevices.forEach(savedDevice -> cache.invalidate(savedDevice.getId()));
+        return savedDevices;
+    }
+
+    @Override
+    public Device findById(Long id) {
+        Device cachedDevice = cache.get(id, key -> copyOf(delegate.findById(key)));
+        return copyOf(cachedDevice);
+    }
+
+    @Override
+    public Device findCurrentById(Long id) {
+        Device device = delegate.findCurrentById(id);
+        if (device == null) {
+            cache.invalidate(id);
+        } else {
+            cache.put(id, copyOf(device));
+        }
+        return device;
+    }
+
+    @Override
+    public PaginatedResponse<Device> findSlice(DeviceFilter filter, DeviceSort sort, int page, int size) {
+        return delegate.findSlice(filter, sort, page, size);
+    }
+
+    @Override
+    public PaginatedResponse<Device> findAllAfter(DeviceFilter filter, DeviceSort sort, Long afterId, int size) {
+        return delegate.findAllAfter(filter, sort, afterId, size);
+    }
+
+    @Override
+    public long count(DeviceFilter filter) {
+        return delegate.count(filter);
+    }
+
+    @Override
+    public List<DeviceCount> countByBrandAndState() {
+        return delegate.countByBrandAndState();
+    }
+
+    @Override
+    public DeviceChanges findChanges(ChangeToken since, int limit) {
+        return delegate.findChanges(since, limit);
+    }
+
+    @Override
+    public int pruneTombstones(Duration retention) {
+        return delegate.pruneTombstones(retention);
+    }
+
+    @Override
+    public List<Device> search(String term, SearchMode mode, int limit) {
+        return delegate.search(term, mode, limit);
+    }
+
+    @Override
+    public StateTransition transitionState(Long id, State newState, Long expectedVersion) {
+        StateTransition transition = delegate.transitionState(id, newState, expectedVersion);
+        cache.invalidate(id);
+        return transition;
+    }
+
+    @Override
+    public List<DeviceStateChange> transitionStates(List<Long> ids, State newState) {
+        List<DeviceStateChange> changes = delegate.transitionStates(ids, newState);
+        cache.invalidateAll(ids);
+        return changes;
+    }
+
+    @Override
+    public void streamAll(String brand, State state, Consumer<Device> consumer) {
+        delegate.streamAll(brand, state, consumer);
+    }
+
+    @Override
+    public DeviceDeletion delete(Long id, Set<State> deletableStates, Long expectedVersion) {
+        DeviceDeletion deletion = delegate.delete(id, deletableStates, expectedVersion);
+        cache.invalidate(id);
+        return deletion;
+    }
+
+    @Override
+    public List<DeviceDeletion> deleteAll(List<Long> ids, Set<State> deletableStates) {
+        List<DeviceDeletion> deletions = delegate.deleteAll(ids, deletableStates);
+        cache.invalidateAll(ids);
+        return deletions;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static Device copyOf(Device device) {
+        if (device == null) {
+            return null;
+        }
+        return Device.reconstruct(device.getId(), device.getName(), device.getBrand(),
+                device.getState().name(), device.getCreationDate(), device.getVersion());
+    }
+}
@@ -2,23 +2,38 @@ package one.global.api.adapter.out.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "device")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = JpaDeviceEntity.CACHE_REGION)
 @NoArgsConstructor
 @AllArgsConstructor
 @Setter
 @Getter
 @EqualsAndHashCode(of = {"id"})
 public class JpaDeviceEntity {
+    /*Second-level cache region; native statements that change devices must evict from it (DeviceRespositoryAdapter).*/
+    public static final String CACHE_REGION = "devices";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "device_id_seq")
+    @SequenceGenerator(name = "device_id_seq", sequenceName = "device_id_seq", allocationSize = 100)
     private Long id;
     private String name;
     private String brand;
     private String state;
     @Column(name = "creation_date")
     private LocalDateTime creationDate;
+    @Version
+    private Long version;
+    /*Stamped by the device_stamp_change trigger (V11) on every write; read only here.*/
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
 }
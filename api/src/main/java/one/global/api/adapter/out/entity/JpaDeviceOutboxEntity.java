@@ -0,0 +1,31 @@
+package one.global.api.adapter.out.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "device_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Setter
+@Getter
+@EqualsAndHashCode(of = {"id"})
+public class JpaDeviceOutboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "device_id")
+    private Long deviceId;
+    @Column(name = "event_type")
+    private String eventType;
+    private String name;
+    private String brand;
+    private String state;
+    @Column(name = "previous_state")
+    private String previousState;
+    private Long version;
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt;
+}
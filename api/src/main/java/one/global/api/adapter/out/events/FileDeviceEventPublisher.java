@@ -0,0 +1,47 @@
+package one.global.api.adapter.out.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.application.port.out.DeviceEventPublisher;
+import one.global.api.domain.model.DeviceEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/*Appends each batch to an NDJSON file, one event per line; meant for local testing without a broker. Readers dedupe by sequence.*/
+public class FileDeviceEventPublisher implements DeviceEventPublisher {
+
+    private final Path file;
+    private final DeviceMapper deviceMapper;
+    private final ObjectMapper objectMapper;
+
+    public FileDeviceEventPublisher(Path file, DeviceMapper deviceMapper, ObjectMapper objectMapper) {
+        this.file = file;
+        this.deviceMapper = deviceMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<DeviceEvent> events) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (DeviceEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(deviceMapper.fromDeviceEventToDTO(event)));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append device events to " + file, e);
+        }
+    }
+
+    @Override
+    public boolean durable() {
+        return true;
+    }
+}
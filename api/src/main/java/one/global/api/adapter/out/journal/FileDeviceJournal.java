@@ -0,0 +1,478 @@
+package one.global.api.adapter.out.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import one.global.api.adapter.out.memory.DeviceStoreListener;
+import one.global.api.adapter.out.memory.InMemoryDeviceRepositoryAdapter;
+import one.global.api.domain.model.Device;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/*
+ * Append-only log of the in-memory store. Every write or removal becomes one checksummed record holding the full
+ * device (or just its id); replaying them in order rebuilds the store. Records are buffered and a single flusher thread
+ * writes and fsyncs whatever accumulated during the previous fsync, so concurrent writers share one disk flush.
+ *
+ * Files in the directory: snapshot.bin (all devices as of some journal segment) and journal-<n>.log segments. Startup
+ * maps the snapshot and replays the segments from the one it names; compaction starts a new segment, writes a fresh
+ * snapshot of the store and deletes the segments before it. Store writes run through write(), so compaction can start
+ * the new segment at a moment when every record in the old ones has also been applied to the store.
+ *
+ * A failed write or fsync stops the journal for good: later appends are refused, and JournalDeviceRepositoryAdapter
+ * stops serving the store, whose memory may hold writes that never reached the disk. A restart recovers from the files.
+ */
+@Slf4j
+public class FileDeviceJournal implements DeviceStoreListener, Closeable {
+
+    private static final String SNAPSHOT = "snapshot.bin";
+    private static final int SNAPSHOT_MAGIC = 0x44455653;
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final byte WRITTEN = 1;
+    private static final byte REMOVED = 2;
+
+    private final Path directory;
+
+    // guards pending/appended/durable; held only briefly so writers never wait on the disk while holding it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedRecords;
+    private long durableRecords;
+    private volatile IOException failure;
+    private boolean closed;
+    private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+
+    // held shared by store writes from appending their records until they are applied, and exclusively by rotation
+    private final ReentrantReadWriteLock writeBarrier = new ReentrantReadWriteLock();
+
+    // guards the segment: held by the flusher from draining a batch until it is on disk, and by rotation
+    private final ReentrantLock segmentLock = new ReentrantLock();
+    private FileChannel segment;
+    private long generation;
+    private volatile long bytesSinceSnapshot;
+    private Thread flusher;
+
+    public FileDeviceJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    /*Rebuilds the store from the snapshot and journal, then starts accepting records.*/
+    public void recover(InMemoryDeviceRepositoryAdapter store) throws IOException {
+        Files.createDirectories(directory);
+        Map<Long, Device> devices = new HashMap<>();
+        long[] maxId = {0};
+
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (Files.exists(snapshot)) {
+            generation = readSnapshot(snapshot, devices, maxId);
+        }
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            long segmentGeneration = generationOf(segments.get(i));
+            if (segmentGeneration >= generation) {
+                replay(segments.get(i), devices, maxId, i == segments.size() - 1);
+                generation = segmentGeneration;
+            }
+        }
+        store.restore(devices.values(), maxId[0]);
+        log.info("Recovered {} devices from {}", devices.size(), directory);
+
+        segment = FileChannel.open(segmentPath(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        bytesSinceSnapshot = segment.size();
+        flusher = Thread.ofPlatform().name("device-journal-flusher").daemon().start(this::flushLoop);
+    }
+
+    @Override
+    public void written(Device device) {
+        append(encode(WRITTEN, device.getId(), device));
+    }
+
+    @Override
+    public void removed(long id) {
+        append(encode(REMOVED, id, null));
+    }
+
+    /*Runs a store write, which appends its records and then applies them, without a compaction starting in between.*/
+    public <T> T write(Supplier<T> write) {
+        writeBarrier.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            writeBarrier.readLock().unlock();
+        }
+    }
+
+    /*Blocks until every record appended by the calling thread is on disk.*/
+    public void awaitDurable() {
+        long target = lastAppended.get()[0];
+        lock.lock();
+        try {
+            while (durableRecords < target) {
+                ensureAvailable();
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long bytesSinceSnapshot() {
+        return bytesSinceSnapshot;
+    }
+
+    public boolean isAvailable() {
+        return failure == null;
+    }
+
+    public void ensureAvailable() {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new UncheckedIOException("Device journal is unavailable", cause);
+        }
+    }
+
+    /*
+     * Snapshots the store and drops the journal it replaces. Writes only wait for the rotation: once it is done, every
+     * record in the old segments is in the store, and writes made during the scan go to the new segment, whose replay
+     * brings the snapshot up to date.
+     */
+    public void compact(InMemoryDeviceRepositoryAdapter store) throws IOException {
+        ensureAvailable();
+        long snapshotGeneration;
+        writeBarrier.writeLock().lock();
+        try {
+            snapshotGeneration = rotate();
+        } finally {
+            writeBarrier.writeLock().unlock();
+        }
+        long maxId = store.maxId();
+
+        Path temporary = directory.resolve(SNAPSHOT + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            CRC32 crc = new CRC32();
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            var headerOut = new DataOutputStream(header);
+            headerOut.writeInt(SNAPSHOT_MAGIC);
+            headerOut.writeInt(SNAPSHOT_FORMAT);
+            headerOut.writeLong(snapshotGeneration);
+            headerOut.writeLong(maxId);
+            out.write(header.toByteArray());
+            crc.update(header.toByteArray());
+
+            IOException[] error = new IOException[1];
+            store.streamAll(null, null, device -> {
+                if (error[0] == null) {
+                    byte[] record = payload(WRITTEN, device.getId(), device);
+                    try {
+                        out.writeInt(record.length);
+                        out.write(record);
+                    } catch (IOException e) {
+                        error[0] = e;
+                    }
+                    crc.update(ByteBuffer.allocate(4).putInt(0, record.length));
+                    crc.update(record);
+                }
+            });
+            if (error[0] != null) {
+                throw error[0];
+            }
+            out.writeInt(-1);
+            out.writeLong(crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Path old : segments()) {
+            if (generationOf(old) < snapshotGeneration) {
+                Files.delete(old);
+            }
+        }
+        log.info("Compacted device journal into a snapshot at segment {}", snapshotGeneration);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (segment != null) {
+            segment.close();
+        }
+    }
+
+    private void append(byte[] record) {
+        lock.lock();
+        try {
+            ensureAvailable();
+            if (segment == null || closed) {
+                throw new IllegalStateException("Device journal is not open");
+            }
+            pending.writeBytes(record);
+            lastAppended.get()[0] = ++appendedRecords;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (pending.size() == 0) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            segmentLock.lock();
+            try {
+                flushPending();
+            } catch (IOException e) {
+                fail(e);
+                return;
+            } finally {
+                segmentLock.unlock();
+            }
+        }
+    }
+
+    /*Writes and fsyncs everything appended so far. Callers hold segmentLock.*/
+    private void flushPending() throws IOException {
+        ByteArrayOutputStream batch;
+        long upTo;
+        lock.lock();
+        try {
+            batch = pending;
+            upTo = appendedRecords;
+            pending = new ByteArrayOutputStream(Math.max(batch.size(), 256));
+        } finally {
+            lock.unlock();
+        }
+        if (batch.size() == 0) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        sync(segment);
+        bytesSinceSnapshot += batch.size();
+
+        lock.lock();
+        try {
+            durableRecords = upTo;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*Forces a written batch to disk. Overridden by tests to make a flush fail.*/
+    protected void sync(FileChannel channel) throws IOException {
+        channel.force(false);
+    }
+
+    private void fail(IOException e) {
+        log.error("Device journal flush failed, stopping the device store", e);
+        lock.lock();
+        try {
+            failure = e;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*Flushes the current segment and starts the next one; returns its generation.*/
+    private long rotate() throws IOException {
+        segmentLock.lock();
+        try {
+            try {
+                flushPending();
+            } catch (IOException e) {
+                fail(e);
+                throw e;
+            }
+            segment.close();
+            generation++;
+            segment = FileChannel.open(segmentPath(generation), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            bytesSinceSnapshot = 0;
+            return generation;
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    private long readSnapshot(Path snapshot, Map<Long, Device> devices, long[] maxId) throws IOException {
+        try (var channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_FORMAT) {
+                throw new IOException("Not a device snapshot: " + snapshot);
+            }
+            long snapshotGeneration = buffer.getLong();
+            maxId[0] = buffer.getLong();
+            crc.update(buffer.duplicate().flip());
+
+            for (int length = buffer.getInt(); length >= 0; length = buffer.getInt()) {
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                crc.update(ByteBuffer.allocate(4).putInt(0, length));
+                crc.update(record.duplicate());
+                apply(record, devices, maxId);
+                buffer.position(buffer.position() + length);
+            }
+            if (buffer.getLong() != crc.getValue()) {
+                throw new IOException("Device snapshot is corrupt: " + snapshot);
+            }
+            return snapshotGeneration;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Device snapshot is truncated: " + snapshot, e);
+        }
+    }
+
+    /*Applies the records of a segment. A torn record can only be the tail of the last segment, which is cut off.*/
+    private void replay(Path path, Map<Long, Device> devices, long[] maxId, boolean last) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int valid = 0;
+            while (buffer.remaining() >= 8) {
+                int length = buffer.getInt();
+                long checksum = buffer.getInt() & 0xFFFFFFFFL;
+                if (length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                CRC32 crc = new CRC32();
+                crc.update(record.duplicate());
+                if (crc.getValue() != checksum) {
+                    break;
+                }
+                apply(record, devices, maxId);
+                buffer.position(buffer.position() + length);
+                valid = buffer.position();
+            }
+            if (valid < channel.size()) {
+                if (!last) {
+                    throw new IOException("Device journal segment is corrupt: " + path);
+                }
+                log.warn("Dropping {} bytes of an incomplete write at the end of {}", channel.size() - valid, path);
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+    }
+
+    private static void apply(ByteBuffer record, Map<Long, Device> devices, long[] maxId) {
+        byte type = record.get();
+        long id = record.getLong();
+        maxId[0] = Math.max(maxId[0], id);
+        if (type == REMOVED) {
+            devices.remove(id);
+            return;
+        }
+        long version = record.getLong();
+        LocalDateTime creationDate = LocalDateTime.ofEpochSecond(record.getLong(), record.getInt(), ZoneOffset.UTC);
+        devices.put(id, Device.reconstruct(id, readString(record), readString(record), readString(record),
+                creationDate, version));
+    }
+
+    private static byte[] encode(byte type, long id, Device device) {
+        byte[] payload = payload(type, id, device);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(8 + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .array();
+    }
+
+    private static byte[] payload(byte type, long id, Device device) {
+        if (device == null) {
+            return ByteBuffer.allocate(9).put(type).putLong(id).array();
+        }
+        byte[] name = device.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] brand = device.getBrand().getBytes(StandardCharsets.UTF_8);
+        byte[] state = device.getState().name().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + 8 + 8 + 8 + 4 + 12 + name.length + brand.length + state.length)
+                .put(type)
+                .putLong(id)
+                .putLong(device.getVersion())
+                .putLong(device.getCreationDate().toEpochSecond(ZoneOffset.UTC))
+                .putInt(device.getCreationDate().getNano())
+                .putInt(name.length).put(name)
+                .putInt(brand.length).put(brand)
+                .putInt(state.length).put(state)
+                .array();
+    }
+
+    private static String readString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().matches("journal-\\d+\\.log"))
+                    .sorted((a, b) -> Long.compare(generationOf(a), generationOf(b)))
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segmentGeneration) {
+        return directory.resolve("journal-%020d.log".formatted(segmentGeneration));
+    }
+
+    private static long generationOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+    }
+}
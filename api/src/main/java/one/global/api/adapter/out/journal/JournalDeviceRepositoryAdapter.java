@@ -0,0 +1,163 @@
+package one.global.api.adapter.out.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import one.global.api.adapter.out.memory.InMemoryDeviceRepositoryAdapter;
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.ChangeToken;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceDeletion;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceStateChange;
+import one.global.api.domain.model.StateTransition;
+import one.global.api.web.dto.PaginatedResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/*
+ * The in-memory store made durable: the store hands each write to the journal before applying it, under the journal's
+ * write barrier, and a write returns only once its records are fsynced. Concurrent writers wait on the same flush. Reads never touch the disk. Once the
+ * journal has failed, reads and writes alike are refused until a restart recovers the store from what is on disk.
+ */
+@Slf4j
+public class JournalDeviceRepositoryAdapter implements DeviceRepository {
+
+    private final InMemoryDeviceRepositoryAdapter store;
+    private final FileDeviceJournal journal;
+    private final long compactThreshold;
+
+    public JournalDeviceRepositoryAdapter(InMemoryDeviceRepositoryAdapter store, FileDeviceJournal journal,
+                                          long compactThreshold) {
+        this.store = store;
+        this.journal = journal;
+        this.compactThreshold = compactThreshold;
+    }
+
+    @Override
+    public Device save(Device device) {
+        journal.ensureAvailable();
+        Device savedDevice = journal.write(() -> store.save(device));
+        journal.awaitDurable();
+        return savedDevice;
+    }
+
+    @Override
+    public List<Device> saveAll(List<Device> devices) {
+        journal.ensureAvailable();
+        List<Device> savedDevices = journal.write(() -> store.saveAll(devices));
+        journal.awaitDurable();
+        return savedDevices;
+    }
+
+    @Override
+    public Device findById(Long id) {
+        journal.ensureAvailable();
+        return store.findById(id);
+    }
+
+    @Override
+    public Device findCurrentById(Long id) {
+        journal.ensureAvailable();
+        return store.findById(id);
+    }
+
+    @Override
+    public PaginatedResponse<Device> findSlice(DeviceFilter filter, DeviceSort sort, int page, int size) {
+        journal.ensureAvailable();
+        return store.findSlice(filter, sort, page, size);
+    }
+
+    @Override
+    public PaginatedResponse<Device> findAllAfter(DeviceFilter filter, DeviceSort sort, Long afterId, int size) {
+        journal.ensureAvailable();
+        return store.findAllAfter(filter, sort, afterId, size);
+    }
+
+    @Override
+    public long count(DeviceFilter filter) {
+        journal.ensureAvailable();
+        return store.count(filter);
+    }
+
+    @Override
+    public List<DeviceCount> countByBrandAndState() {
+        journal.ensureAvailable();
+        return store.countByBrandAndState();
+    }
+
+    @Override
+    public DeviceChanges findChanges(ChangeToken since, int limit) {
+        journal.ensureAvailable();
+        return store.findChanges(since, limit);
+    }
+
+    @Override
+    public int pruneTombstones(Duration retention) {
+        journal.ensureAvailable();
+        return store.pruneTombstones(retention);
+    }
+
+    @Override
+    public List<Device> search(String term, SearchMode mode, int limit) {
+        journal.ensureAvailable();
+        return store.search(term, mode, limit);
+    }
+
+    @Override
+    public StateTransition transitionState(Long id, State newState, Long expectedVersion) {
+        journal.ensureAvailable();
+        StateTransition transition = journal.write(() -> store.transitionState(id, newState, expectedVersion));
+        journal.awaitDurable();
+        return transition;
+    }
+
+    @Override
+    public List<DeviceStateChange> transitionStates(List<Long> ids, State newState) {
+        journal.ensureAvailable();
+        List<DeviceStateChange> changes = journal.write(() -> store.transitionStates(ids, newState));
+        journal.awaitDurable();
+        return changes;
+    }
+
+    @Override
+    public void streamAll(String brand, State state, Consumer<Device> consumer) {
+        journal.ensureAvailable();
+        store.streamAll(brand, state, consumer);
+    }
+
+    @Override
+    public DeviceDeletion delete(Long id, Set<State> deletableStates, Long expectedVersion) {
+        journal.ensureAvailable();
+        DeviceDeletion deletion = journal.write(() -> store.delete(id, deletableStates, expectedVersion));
+        journal.awaitDurable();
+        return deletion;
+    }
+
+    @Override
+    public List<DeviceDeletion> deleteAll(List<Long> ids, Set<State> deletableStates) {
+        journal.ensureAvailable();
+        List<DeviceDeletion> deletions = journal.write(() -> store.deleteAll(ids, deletableStates));
+        journal.awaitDurable();
+        return deletions;
+    }
+
+    /*Replaces the journal with a snapshot once it has grown past the threshold, bounding startup replay time.*/
+    public void compactIfNeeded() {
+        if (!journal.isAvailable() || journal.bytesSinceSnapshot() < compactThreshold) {
+            return;
+        }
+        try {
+            journal.compact(store);
+        } catch (IOException e) {
+            log.error("Device journal compaction failed, keeping the journal", e);
+        }
+    }
+}
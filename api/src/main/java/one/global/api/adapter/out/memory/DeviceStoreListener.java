@@ -0,0 +1,24 @@
+package one.global.api.adapter.out.memory;
+
+import one.global.api.domain.model.Device;
+
+/*
+ * Told about every device written to or removed from the in-memory store, in order per device, while it is locked and
+ * before the store applies it. Throwing rejects the write.
+ */
+public interface DeviceStoreListener {
+
+    DeviceStoreListener NONE = new DeviceStoreListener() {
+        @Override
+        public void written(Device device) {
+        }
+
+        @Override
+        public void removed(long id) {
+        }
+    };
+
+    void written(Device device);
+
+    void removed(long id);
+}
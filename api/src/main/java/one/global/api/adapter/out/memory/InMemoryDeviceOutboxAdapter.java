@@ -0,0 +1,62 @@
+package one.global.api.adapter.out.memory;
+
+import one.global.api.application.port.out.DeviceOutbox;
+import one.global.api.domain.enums.DeviceEventType;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceEvent;
+import one.global.api.domain.model.DeviceEvents;
+import one.global.api.domain.model.OutboxPosition;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/*
+ * Outbox of the in-memory profile: events are logged by the repository adapter as it applies each change, in
+ * sequence order, and kept for the retention like the database outbox. There are no transactions, so the xid of a
+ * position is always 0.
+ */
+public class InMemoryDeviceOutboxAdapter implements DeviceOutbox {
+
+    private final NavigableMap<Long, DeviceEvent> events = new TreeMap<>();
+    private long sequence;
+
+    public synchronized void append(DeviceEventType type, Device device, State previousState) {
+        sequence++;
+        events.put(sequence, new DeviceEvent(sequence, type, device.getId(), device.getName(), device.getBrand(),
+                device.getState(), previousState, device.getVersion(), LocalDateTime.now()));
+    }
+
+    @Override
+    public synchronized OutboxPosition tail() {
+        return new OutboxPosition(0, sequence);
+    }
+
+    @Override
+    public synchronized DeviceEvents readAfter(OutboxPosition position, int limit) {
+        List<DeviceEvent> batch = new ArrayList<>(Math.min(limit, events.size()));
+        Iterator<DeviceEvent> pending = events.tailMap(position.sequence(), false).values().iterator();
+        while (batch.size() < limit && pending.hasNext()) {
+            batch.add(pending.next());
+        }
+        OutboxPosition next = batch.isEmpty() ? position : new OutboxPosition(0, batch.getLast().sequence());
+        return new DeviceEvents(batch, next, pending.hasNext());
+    }
+
+    @Override
+    public synchronized int prune(Duration retention) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int pruned = 0;
+        Iterator<DeviceEvent> oldest = events.values().iterator();
+        while (oldest.hasNext() && oldest.next().occurredAt().isBefore(cutoff)) {
+            oldest.remove();
+            pruned++;
+        }
+        return pruned;
+    }
+}
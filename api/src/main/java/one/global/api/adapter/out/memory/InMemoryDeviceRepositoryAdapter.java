@@ -0,0 +1,675 @@
+package one.global.api.adapter.out.memory;
+
+import one.global.api.Utils.Utils;
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.domain.enums.DeviceEventType;
+import one.global.api.domain.enums.DeviceSortKey;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.exception.ChangeTokenExpiredException;
+import one.global.api.domain.exception.DeviceNotFoundException;
+import one.global.api.domain.model.ChangeToken;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChange;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceDeletion;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceStateChange;
+import one.global.api.domain.model.StateTransition;
+import one.global.api.web.dto.PaginatedResponse;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/*
+ * Keeps devices in memory instead of PostgreSQL (profile "in-memory"), for edge deployments and fast tests.
+ * Devices sit in pages of slots addressed by id, so a lookup is two array reads and a scan in id order walks the
+ * slots. Brand and state indexes are bit sets of ids. Writers lock one of a fixed set of stripes chosen by id; readers
+ * take no device lock and re-check every index hit against its slot. Built by InMemoryStoreConfig.
+ */
+public class InMemoryDeviceRepositoryAdapter implements DeviceRepository {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int MAX_PAGES = 1 << 16;
+    private static final int LOCK_STRIPES = 64;
+    // this app's default for device.search.fuzzy-threshold (pg_trgm's own is 0.6); InMemoryStoreConfig passes the setting
+    public static final double DEFAULT_FUZZY_THRESHOLD = 0.5;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final InMemoryDeviceOutboxAdapter outbox;
+    private final DeviceStoreListener listener;
+    private final double fuzzyThreshold;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<Device>> pages = new AtomicReferenceArray<>(MAX_PAGES);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Lock[] locks = stripes();
+    private final IdIndex allIds = new IdIndex();
+    private final Map<String, IdIndex> byBrand = new ConcurrentHashMap<>();
+    private final Map<State, IdIndex> byState = stateIndexes();
+
+    /*Change feed: the latest change of every device, live or deleted, ordered by change sequence.*/
+    private final ConcurrentSkipListMap<Long, Change> changes = new ConcurrentSkipListMap<>();
+    private final Map<Long, Change> lastChanges = new ConcurrentHashMap<>();
+    private final Lock changeLock = new ReentrantLock();
+    private long changeSequence;
+    /*Changes are numbered anew by every store, recovered or not, so tokens of an earlier one are rejected.*/
+    private final long epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    /*Highest sequence of a pruned tombstone; older tokens may have missed that deletion.*/
+    private volatile long prunedSequence;
+
+    public InMemoryDeviceRepositoryAdapter(InMemoryDeviceOutboxAdapter outbox) {
+        this(outbox, DeviceStoreListener.NONE);
+    }
+
+    public InMemoryDeviceRepositoryAdapter(InMemoryDeviceOutboxAdapter outbox, DeviceStoreListener listener) {
+        this(outbox, listener, DEFAULT_FUZZY_THRESHOLD);
+    }
+
+    public InMemoryDeviceRepositoryAdapter(InMemoryDeviceOutboxAdapter outbox, DeviceStoreListener listener,
+                                           double fuzzyThreshold) {
+        this.outbox = outbox;
+        this.listener = listener;
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    /*Loads devices recovered from elsewhere, e.g. a journal, before the store is used. Nothing is logged or published.*/
+    public void restore(Collection<Device> devices, long maxId) {
+        sequence.accumulateAndGet(maxId, Math::max);
+        for (Device device : devices) {
+            long id = device.getId();
+            Lock lock = lockFor(id);
+            lock.lock();
+            try {
+                sequence.accumulateAndGet(id, Math::max);
+                index(id, slot(id), copyOf(device));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /*Highest id handed out so far, deleted or not.*/
+    public long maxId() {
+        return sequence.get();
+    }
+
+    @Override
+    public Device save(Device device) {
+        if (device.getId() != null) {
+            return update(device);
+        }
+
+        long id = sequence.incrementAndGet();
+        if (id >= (long) MAX_PAGES * PAGE_SIZE) {
+            throw new IllegalStateException("In-memory device store is full");
+        }
+        Device created = Device.reconstruct(id, device.getName(), device.getBrand(), device.getState().name(),
+                device.getCreationDate(), 0L);
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            put(id, null, created);
+            outbox.append(DeviceEventType.CREATED, created, null);
+        } finally {
+            lock.unlock();
+        }
+        return copyOf(created);
+    }
+
+    private Device update(Device device) {
+        long id = device.getId();
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            Device current = slot(id);
+            if (current == null) {
+                throw new DeviceNotFoundException(String.format("Device with id %s not found", id));
+            }
+            if (!Objects.equals(current.getVersion(), device.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Device.class, id);
+            }
+            boolean stateChanged = current.getState() != device.getState();
+            if (!stateChanged && current.getName().equals(device.getName()) && current.getBrand().equals(device.getBrand())) {
+                return copyOf(current);
+            }
+
+            Device updated = Device.reconstruct(id, device.getName(), device.getBrand(), device.getState().name(),
+                    current.getCreationDate(), current.getVersion() + 1);
+            put(id, current, updated);
+            outbox.append(stateChanged ? DeviceEventType.STATE_CHANGED : DeviceEventType.UPDATED, updated,
+                    stateChanged ? current.getState() : null);
+            return copyOf(updated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Device> saveAll(List<Device> devices) {
+        return devices.stream().map(this::save).toList();
+    }
+
+    @Override
+    public Device findById(Long id) {
+        Device device = slot(id);
+        return device != null ? copyOf(device) : null;
+    }
+
+    @Override
+    public Device findCurrentById(Long id) {
+        return findById(id);
+    }
+
+    @Override
+    public PaginatedResponse<Device> findSlice(DeviceFilter filter, DeviceSort sort, int page, int size) {
+        List<Device> content = new ArrayList<>(size);
+        long offset = (long) page * size;
+        if (sort.key() == DeviceSortKey.ID) {
+            long[] skipped = {0};
+            scan(filter, sort.descending(), null, device -> {
+                if (skipped[0]++ < offset) {
+                    return true;
+                }
+                content.add(copyOf(device));
+                return content.size() <= size;
+            });
+        } else {
+            List<Device> matching = new ArrayList<>();
+            scan(filter, false, null, matching::add);
+            matching.stream().sorted(comparator(sort)).skip(offset).limit(size + 1L).map(this::copyOf)
+                    .forEach(content::add);
+        }
+
+        boolean hasNext = content.size() > size;
+        var slice = new PaginatedResponse<>(hasNext ? content.subList(0, size) : content, size, hasNext, null);
+        slice.setPageNumber(page);
+        return slice;
+    }
+
+    @Override
+    public PaginatedResponse<Device> findAllAfter(DeviceFilter filter, DeviceSort sort, Long afterId, int size) {
+        List<Device> content = new ArrayList<>(size + 1);
+        scan(filter, sort.descending(), afterId, device -> {
+            content.add(copyOf(device));
+            return content.size() <= size;
+        });
+
+        boolean hasNext = content.size() > size;
+        List<Device> devices = hasNext ? content.subList(0, size) : content;
+        String nextCursor = hasNext ? Utils.encodeCursor(devices.getLast().getId()) : null;
+        return new PaginatedResponse<>(devices, size, hasNext, nextCursor);
+    }
+
+    @Override
+    public long count(DeviceFilter filter) {
+        long[] count = {0};
+        scan(filter, false, null, device -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    @Override
+    public List<DeviceCount> countByBrandAndState() {
+        Map<String, Map<State, Long>> counts = new HashMap<>();
+        scan(DeviceFilter.NONE, false, null, device -> {
+            counts.computeIfAbsent(device.getBrand(), brand -> new EnumMap<>(State.class))
+                    .merge(device.getState(), 1L, Long::sum);
+            return true;
+        });
+
+        List<DeviceCount> deviceCounts = new ArrayList<>();
+        counts.forEach((brand, byStateCount) -> byStateCount.forEach((state, count) ->
+                deviceCounts.add(new DeviceCount(brand, state, count))));
+        return deviceCounts;
+    }
+
+    @Override
+    public DeviceChanges findChanges(ChangeToken since, int limit) {
+        if (!since.equals(ChangeToken.START) && since.epoch() != epoch) {
+            throw new ChangeTokenExpiredException("Change token was handed out before the store was last started");
+        }
+        if (since.seq() > 0 && since.seq() < prunedSequence) {
+            throw new ChangeTokenExpiredException("Deletions after change token " + since.seq() + " are no longer kept");
+        }
+        List<Change> changed = new ArrayList<>(limit + 1);
+        for (Change change : changes.tailMap(since.seq(), false).values()) {
+            changed.add(change);
+            if (changed.size() > limit) {
+                break;
+            }
+        }
+
+        boolean hasMore = changed.size() > limit;
+        List<DeviceChange> deviceChanges = new ArrayList<>(Math.min(changed.size(), limit));
+        for (Change change : changed.subList(0, Math.min(changed.size(), limit))) {
+            Device device = slot(change.id());
+            deviceChanges.add(new DeviceChange(change.id(), device != null ? copyOf(device) : null, change.changedAt()));
+        }
+        ChangeToken nextToken = deviceChanges.isEmpty() ? since
+                : new ChangeToken(epoch, 0, changed.get(deviceChanges.size() - 1).seq());
+        return new DeviceChanges(deviceChanges, nextToken, hasMore);
+    }
+
+    @Override
+    public int pruneTombstones(Duration retention) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int pruned = 0;
+        changeLock.lock();
+        try {
+            for (Change change : changes.values()) {
+                if (!change.changedAt().isBefore(cutoff)) {
+                    break;
+                }
+                if (slot(change.id()) == null && lastChanges.remove(change.id(), change)) {
+                    changes.remove(change.seq());
+                    prunedSequence = Math.max(prunedSequence, change.seq());
+                    pruned++;
+                }
+            }
+        } finally {
+            changeLock.unlock();
+        }
+        return pruned;
+    }
+
+    @Override
+    public List<Device> search(String term, SearchMode mode, int limit) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        Set<String> termTrigrams = trigrams(term);
+        Predicate<String> matches = switch (mode) {
+            case PREFIX -> value -> value.toLowerCase(Locale.ROOT).startsWith(needle);
+            case CONTAINS -> value -> value.toLowerCase(Locale.ROOT).contains(needle);
+            case FUZZY -> value -> wordSimilarity(termTrigrams, value) >= fuzzyThreshold;
+        };
+
+        Map<Device, Double> similarities = new HashMap<>();
+        scan(DeviceFilter.NONE, false, null, device -> {
+            if (matches.test(device.getName()) || matches.test(device.getBrand())) {
+                similarities.put(device, Math.max(wordSimilarity(termTrigrams, device.getName()),
+                        wordSimilarity(termTrigrams, device.getBrand())));
+            }
+            return true;
+        });
+        return similarities.entrySet().stream()
+                .sorted(Map.Entry.<Device, Double>comparingByValue().reversed()
+                        .thenComparing(entry -> entry.getKey().getId()))
+                .limit(limit)
+                .map(entry -> copyOf(entry.getKey()))
+                .toList();
+    }
+
+    @Override
+    public StateTransition transitionState(Long id, State newState, Long expectedVersion) {
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            Device current = slot(id);
+            if (current == null) {
+                return null;
+            }
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                return new StateTransition(null, current.getState(), current.getVersion());
+            }
+            if (current.getState() == newState) {
+                return new StateTransition(copyOf(current), current.getState(), current.getVersion());
+            }
+
+            Device updated = withState(current, newState);
+            put(id, current, updated);
+            outbox.append(DeviceEventType.STATE_CHANGED, updated, current.getState());
+            return new StateTransition(copyOf(updated), current.getState(), current.getVersion());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<DeviceStateChange> transitionStates(List<Long> ids, State newState) {
+        List<DeviceStateChange> stateChanges = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Lock lock = lockFor(id);
+            lock.lock();
+            try {
+                Device current = slot(id);
+                if (current == null) {
+                    continue;
+                }
+                boolean changed = current.getState() != newState;
+                if (changed) {
+                    Device updated = withState(current, newState);
+                    put(id, current, updated);
+                    outbox.append(DeviceEventType.STATE_CHANGED, updated, current.getState());
+                }
+                stateChanges.add(new DeviceStateChange(id, current.getBrand(), current.getState(), changed));
+            } finally {
+                lock.unlock();
+            }
+        }
+        return stateChanges;
+    }
+
+    @Override
+    public void streamAll(String brand, State state, Consumer<Device> consumer) {
+        scan(DeviceFilter.of(brand, state), false, null, device -> {
+            consumer.accept(copyOf(device));
+            return true;
+        });
+    }
+
+    @Override
+    public DeviceDeletion delete(Long id, Set<State> deletableStates, Long expectedVersion) {
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            Device current = slot(id);
+            if (current == null) {
+                return null;
+            }
+            boolean deleted = deletableStates.contains(current.getState())
+                    && (expectedVersion == null || expectedVersion.equals(current.getVersion()));
+            if (deleted) {
+                remove(id, current);
+                outbox.append(DeviceEventType.DELETED, current, null);
+            }
+            return new DeviceDeletion(id, current.getBrand(), current.getState(), current.getVersion(), deleted);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<DeviceDeletion> deleteAll(List<Long> ids, Set<State> deletableStates) {
+        List<DeviceDeletion> deletions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            DeviceDeletion deletion = delete(id, deletableStates, null);
+            if (deletion != null) {
+                deletions.add(deletion);
+            }
+        }
+        return deletions;
+    }
+
+    /*
+     * Walks the devices matching the filter in id order, starting after afterId, until the visitor returns false.
+     * Driven by the smaller of the brand and state indexes the filter names, or by all ids.
+     */
+    private void scan(DeviceFilter filter, boolean descending, Long afterId, Predicate<Device> visitor) {
+        List<IdIndex> indexes = drivingIndexes(filter);
+        Predicate<Device> matches = matches(filter);
+        long from = afterId == null ? (descending ? Integer.MAX_VALUE : 0) : (descending ? afterId - 1 : afterId + 1);
+        for (long id = next(indexes, from, descending); id >= 0; id = next(indexes, descending ? id - 1 : id + 1, descending)) {
+            Device device = slot(id);
+            if (device != null && matches.test(device) && !visitor.test(device)) {
+                return;
+            }
+        }
+    }
+
+    private List<IdIndex> drivingIndexes(DeviceFilter filter) {
+        List<IdIndex> brandIndexes = filter.brands().stream().map(byBrand::get).filter(Objects::nonNull).toList();
+        List<IdIndex> stateIndexes = filter.states().stream().map(byState::get).toList();
+        if (filter.brands().isEmpty() && filter.states().isEmpty()) {
+            return List.of(allIds);
+        }
+        if (filter.brands().isEmpty()) {
+            return stateIndexes;
+        }
+        if (filter.states().isEmpty() || size(brandIndexes) <= size(stateIndexes)) {
+            return brandIndexes;
+        }
+        return stateIndexes;
+    }
+
+    private static long next(List<IdIndex> indexes, long from, boolean descending) {
+        if (from < 0) {
+            return -1;
+        }
+        long next = -1;
+        for (IdIndex index : indexes) {
+            long id = descending ? index.previous(from) : index.next(from);
+            if (id >= 0 && (next < 0 || (descending ? id > next : id < next))) {
+                next = id;
+            }
+        }
+        return next;
+    }
+
+    private static long size(Collection<IdIndex> indexes) {
+        return indexes.stream().mapToLong(IdIndex::size).sum();
+    }
+
+    /*The listener hears first, so a write it refuses (a failed journal) leaves the store as it was.*/
+    private void put(long id, Device previous, Device device) {
+        listener.written(device);
+        index(id, previous, device);
+    }
+
+    /*Indexes the new values before the slot is written and drops the old ones after, so scans never miss a device.*/
+    private void index(long id, Device previous, Device device) {
+        if (previous == null) {
+            allIds.add(id);
+        }
+        if (previous == null || !previous.getBrand().equals(device.getBrand())) {
+            byBrand.computeIfAbsent(device.getBrand(), brand -> new IdIndex()).add(id);
+        }
+        if (previous == null || previous.getState() != device.getState()) {
+            byState.get(device.getState()).add(id);
+        }
+
+        store(id, device);
+
+        if (previous != null && !previous.getBrand().equals(device.getBrand())) {
+            byBrand.get(previous.getBrand()).remove(id);
+        }
+        if (previous != null && previous.getState() != device.getState()) {
+            byState.get(previous.getState()).remove(id);
+        }
+        recordChange(id);
+    }
+
+    private void remove(long id, Device previous) {
+        listener.removed(id);
+        store(id, null);
+        allIds.remove(id);
+        byBrand.get(previous.getBrand()).remove(id);
+        byState.get(previous.getState()).remove(id);
+        recordChange(id);
+    }
+
+    private void recordChange(long id) {
+        changeLock.lock();
+        try {
+            Change change = new Change(id, ++changeSequence, LocalDateTime.now());
+            changes.put(change.seq(), change);
+            Change previous = lastChanges.put(id, change);
+            if (previous != null) {
+                changes.remove(previous.seq());
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    private Device slot(long id) {
+        if (id <= 0 || id >= (long) MAX_PAGES * PAGE_SIZE) {
+            return null;
+        }
+        AtomicReferenceArray<Device> page = pages.get((int) (id >>> PAGE_BITS));
+        return page != null ? page.get((int) (id & (PAGE_SIZE - 1))) : null;
+    }
+
+    private void store(long id, Device device) {
+        int pageIndex = (int) (id >>> PAGE_BITS);
+        AtomicReferenceArray<Device> page = pages.get(pageIndex);
+        if (page == null) {
+            pages.compareAndSet(pageIndex, null, new AtomicReferenceArray<>(PAGE_SIZE));
+            page = pages.get(pageIndex);
+        }
+        page.set((int) (id & (PAGE_SIZE - 1)), device);
+    }
+
+    private Lock lockFor(long id) {
+        return locks[(int) (id & (LOCK_STRIPES - 1))];
+    }
+
+    private static Predicate<Device> matches(DeviceFilter filter) {
+        return device -> (filter.brands().isEmpty() || filter.brands().contains(device.getBrand()))
+                && (filter.states().isEmpty() || filter.states().contains(device.getState()))
+                && (filter.createdFrom() == null || !device.getCreationDate().toLocalDate().isBefore(filter.createdFrom()))
+                && (filter.createdTo() == null || !device.getCreationDate().toLocalDate().isAfter(filter.createdTo()));
+    }
+
+    private static Comparator<Device> comparator(DeviceSort sort) {
+        Comparator<Device> byKey = switch (sort.key()) {
+            case ID -> Comparator.comparing(Device::getId);
+            case NAME -> Comparator.comparing(Device::getName).thenComparing(Device::getId);
+            case BRAND -> Comparator.comparing(Device::getBrand).thenComparing(Device::getId);
+            case CREATION_DATE -> Comparator.comparing(Device::getCreationDate).thenComparing(Device::getId);
+        };
+        return sort.descending() ? byKey.reversed() : byKey;
+    }
+
+    /*
+     * Share of the term's trigrams found in the closest single word of the value. pg_trgm's word_similarity instead
+     * takes the closest run of the value's trigrams, which can span words and also counts the run's other trigrams
+     * against it. One-word terms, the usual case, land on the same side of the threshold; a term of several words
+     * is only matched here through its closest word, so a typo in "galxy s9" that the database still finds is missed.
+     */
+    private static double wordSimilarity(Set<String> termTrigrams, String value) {
+        if (termTrigrams.isEmpty()) {
+            return 0;
+        }
+        double best = 0;
+        for (String word : WORD_SEPARATOR.split(value.toLowerCase(Locale.ROOT))) {
+            Set<String> wordTrigrams = trigrams(word);
+            long shared = termTrigrams.stream().filter(wordTrigrams::contains).count();
+            best = Math.max(best, (double) shared / termTrigrams.size());
+        }
+        return best;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static Device withState(Device device, State state) {
+        return Device.reconstruct(device.getId(), device.getName(), device.getBrand(), state.name(),
+                device.getCreationDate(), device.getVersion() + 1);
+    }
+
+    private Device copyOf(Device device) {
+        return Device.reconstruct(device.getId(), device.getName(), device.getBrand(),
+                device.getState().name(), device.getCreationDate(), device.getVersion());
+    }
+
+    private static Lock[] stripes() {
+        Lock[] stripes = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    private static Map<State, IdIndex> stateIndexes() {
+        Map<State, IdIndex> indexes = new EnumMap<>(State.class);
+        for (State state : State.values()) {
+            indexes.put(state, new IdIndex());
+        }
+        return indexes;
+    }
+
+    private record Change(long id, long seq, LocalDateTime changedAt) {
+    }
+
+    /*Ids as a bit set, with its own lock so writers to different brands or states do not contend.*/
+    private static final class IdIndex {
+
+        private final BitSet ids = new BitSet();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void add(long id) {
+            lock.writeLock().lock();
+            try {
+                ids.set((int) id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                ids.clear((int) id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long next(long from) {
+            lock.readLock().lock();
+            try {
+                return ids.nextSetBit((int) from);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long previous(long from) {
+            lock.readLock().lock();
+            try {
+                return ids.previousSetBit((int) Math.min(from, Integer.MAX_VALUE));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return ids.cardinality();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package one.global.api.adapter.out.persistence;
+
+import lombok.RequiredArgsConstructor;
+import one.global.api.application.port.out.DeviceOutbox;
+import one.global.api.domain.enums.DeviceEventType;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.DeviceEvent;
+import one.global.api.domain.model.DeviceEvents;
+import one.global.api.domain.model.OutboxPosition;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class DeviceOutboxAdapter implements DeviceOutbox {
+
+    private final JpaDeviceOutboxRepository jpaDeviceOutboxRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public OutboxPosition tail() {
+        return new OutboxPosition(jpaDeviceOutboxRepository.horizon(), 0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeviceEvents readAfter(OutboxPosition position, int limit) {
+        // every transaction below the horizon has finished, so nothing can still appear before it
+        long horizon = jpaDeviceOutboxRepository.horizon();
+        List<Object[]> rows = jpaDeviceOutboxRepository.findCommittedAfter(position.xid(), position.sequence(),
+                horizon, limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<DeviceEvent> events = new ArrayList<>(Math.min(rows.size(), limit));
+        OutboxPosition next = horizon > position.xid() ? new OutboxPosition(horizon, 0) : position;
+        for (Object[] row : rows.subList(0, Math.min(rows.size(), limit))) {
+            events.add(toDeviceEvent(row));
+            if (hasMore) {
+                next = new OutboxPosition(((Number) row[9]).longValue(), ((Number) row[0]).longValue());
+            }
+        }
+        return new DeviceEvents(events, next, hasMore);
+    }
+
+    @Override
+    @Transactional
+    public int prune(Duration retention) {
+        return jpaDeviceOutboxRepository.deleteOlderThan(retention.toMillis() / 1000.0);
+    }
+
+    private static DeviceEvent toDeviceEvent(Object[] row) {
+        return new DeviceEvent(((Number) row[0]).longValue(), DeviceEventType.valueOf((String) row[1]),
+                ((Number) row[2]).longValue(), (String) row[3], (String) row[4], toState((String) row[5]),
+                toState((String) row[6]), row[7] != null ? ((Number) row[7]).longValue() : null,
+                toLocalDateTime(row[8]));
+    }
+
+    private static State toState(String state) {
+        return state != null ? State.valueOf(state) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
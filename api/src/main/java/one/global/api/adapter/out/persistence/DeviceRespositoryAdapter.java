@@ -1,60 +1,334 @@
 package one.global.api.adapter.out.persistence;
 
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import one.global.api.adapter.out.DeviceMapper;
 import one.global.api.adapter.out.entity.JpaDeviceEntity;
 import one.global.api.application.port.out.DeviceRepository;
 import one.global.api.Utils.Utils;
-import one.global.api.domain.enums.State;
+import one.global.api.domain.enums.DeviceEventType;
+import one.global.api.domain.exception.ChangeTokenExpiredException;
 import one.global.api.domain.exception.DeviceNotFoundException;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.ChangeToken;
 import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceChange;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceDeletion;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceStateChange;
+import one.global.api.domain.model.StateTransition;
 import one.global.api.web.dto.PaginatedResponse;
-import org.springframework.data.domain.Page;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
+@Profile("!in-memory")
 @RequiredArgsConstructor
 public class DeviceRespositoryAdapter implements DeviceRepository {
 
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final String[] DEVICE_TABLE = {"device"};
+
     private final JpaDeviceRepository jpaDeviceRepository;
+    private final JpaDeviceOutboxRepository jpaDeviceOutboxRepository;
     private final DeviceMapper deviceMapper;
+    private final EntityManager entityManager;
 
     @Override
+    @Transactional
     public Device save(Device device) {
-        JpaDeviceEntity entity = deviceMapper.fromDeviceToJpaDeviceEntity(device);
-        JpaDeviceEntity savedEntity = jpaDeviceRepository.save(entity);
+        if (device.getId() != null) {
+            return update(device);
+        }
+        JpaDeviceEntity savedEntity = jpaDeviceRepository.saveAndFlush(deviceMapper.fromDeviceToJpaDeviceEntity(device));
+        appendEvents(List.of(savedEntity.getId()), DeviceEventType.CREATED, null);
         return deviceMapper.fromJpaDeviceEntityToDevice(savedEntity);
     }
 
+    /*A merge would select the row again; the service has just read it, so write against that version instead.*/
+    private Device update(Device device) {
+        evictFromCache(List.of(device.getId()));
+        List<Object[]> rows = jpaDeviceRepository.updateDevice(device.getId(), device.getName(), device.getBrand(),
+                device.getState().name(), device.getVersion());
+        if (rows.isEmpty()) {
+            throw new DeviceNotFoundException(String.format("Device with id %s not found", device.getId()));
+        }
+        if (rows.getFirst()[0] == null) {
+            throw new ObjectOptimisticLockingFailureException(JpaDeviceEntity.class, device.getId());
+        }
+
+        Object[] row = rows.getFirst();
+        return Device.reconstruct(((Number) row[0]).longValue(), (String) row[1], (String) row[2], (String) row[3],
+                toLocalDateTime(row[4]), ((Number) row[5]).longValue());
+    }
+
+    @Override
+    @Transactional
+    public List<Device> saveAll(List<Device> devices) {
+        List<JpaDeviceEntity> entities = devices.stream()
+                .map(deviceMapper::fromDeviceToJpaDeviceEntity)
+                .toList();
+        List<Device> savedDevices = jpaDeviceRepository.saveAllAndFlush(entities).stream()
+                .map(deviceMapper::fromJpaDeviceEntityToDevice)
+                .toList();
+        List<Long> ids = savedDevices.stream().map(Device::getId).toList();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            appendEvents(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())), DeviceEventType.CREATED, null);
+        }
+        return savedDevices;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Device> search(String term, SearchMode mode, int limit) {
+        skipCachePutsOnReplica();
+        List<JpaDeviceEntity> entities = switch (mode) {
+            case PREFIX -> jpaDeviceRepository.searchByPattern(term, escapeLike(term) + "%", limit);
+            case CONTAINS -> jpaDeviceRepository.searchByPattern(term, "%" + escapeLike(term) + "%", limit);
+            case FUZZY -> jpaDeviceRepository.searchBySimilarity(term, limit);
+        };
+        return entities.stream().map(deviceMapper::fromJpaDeviceEntityToDevice).toList();
+    }
+
+    @Override
+    @Transactional
+    public StateTransition transitionState(Long id, State newState, Long expectedVersion) {
+        evictFromCache(List.of(id));
+        List<Object[]> rows = jpaDeviceRepository.transitionState(id, newState.name(), expectedVersion);
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        Object[] row = rows.getFirst();
+        Device device = row[2] == null ? null : Device.reconstruct(((Number) row[2]).longValue(), (String) row[3],
+                (String) row[4], (String) row[5], toLocalDateTime(row[6]), ((Number) row[7]).longValue());
+        return new StateTransition(device, State.valueOf((String) row[0]), ((Number) row[1]).longValue());
+    }
+
     @Override
+    @Transactional
+    public List<DeviceStateChange> transitionStates(List<Long> ids, State newState) {
+        evictFromCache(ids);
+        List<DeviceStateChange> changes = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            jpaDeviceRepository.transitionStates(chunk, newState.name()).forEach(row -> changes.add(
+                    new DeviceStateChange(((Number) row[0]).longValue(), (String) row[1],
+                            State.valueOf((String) row[2]), (Boolean) row[3])));
+        }
+        return changes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Device findById(Long id) {
+        skipCachePutsOnReplica();
         var optionalEntity = jpaDeviceRepository.findById(id);
         return optionalEntity.map(deviceMapper::fromJpaDeviceEntityToDevice).orElse(null);
     }
 
+    /*Skips the second-level cache on the way in and refreshes it with what was read.*/
     @Override
-    public PaginatedResponse<Device> findAll(String brand, State state, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        String stateName = Utils.getNameFromState(state);
+    @Transactional(readOnly = true)
+    public Device findCurrentById(Long id) {
+        JpaDeviceEntity entity = entityManager.find(JpaDeviceEntity.class, id, Map.of(
+                SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS,
+                SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.REFRESH));
+        return entity != null ? deviceMapper.fromJpaDeviceEntityToDevice(entity) : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginatedResponse<Device> findSlice(DeviceFilter filter, DeviceSort sort, int page, int size) {
+        skipCachePutsOnReplica();
+        Pageable pageable = PageRequest.of(page, size, DeviceSpecifications.toSort(sort));
+
+        Slice<JpaDeviceEntity> jpaSlice = jpaDeviceRepository.findBy(DeviceSpecifications.matching(filter),
+                query -> query.slice(pageable));
+
+        List<Device> devices = jpaSlice.getContent().stream()
+                .map(deviceMapper::fromJpaDeviceEntityToDevice).toList();
+
+        var slice = new PaginatedResponse<>(devices, jpaSlice.getSize(), jpaSlice.hasNext(), null);
+        slice.setPageNumber(jpaSlice.getNumber());
+        return slice;
+    }
+
+    @Override
+    public List<DeviceCount> countByBrandAndState() {
+        return jpaDeviceRepository.countGroupedByBrandAndState().stream()
+                .map(row -> new DeviceCount((String) row[0], State.valueOf((String) row[1]), (Long) row[2]))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeviceChanges findChanges(ChangeToken since, int limit) {
+        // every transaction below the horizon has finished, so nothing can still appear before it
+        Object[] bounds = jpaDeviceRepository.changeBounds().getFirst();
+        long horizon = ((Number) bounds[0]).longValue();
+        ChangeToken floor = new ChangeToken(((Number) bounds[1]).longValue(), ((Number) bounds[2]).longValue());
+        if (since.epoch() != ChangeToken.START.epoch()) {
+            throw new ChangeTokenExpiredException("Change token was handed out by another store");
+        }
+        if (!since.equals(ChangeToken.START) && since.isBefore(floor)) {
+            throw new ChangeTokenExpiredException("Deletions after change token " + since.xid() + ":" + since.seq()
+                    + " are no longer kept");
+        }
+        List<Object[]> rows = jpaDeviceRepository.findChanges(since.xid(), since.seq(), horizon, limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<DeviceChange> changes = new ArrayList<>(Math.min(rows.size(), limit));
+        ChangeToken nextToken = horizon > since.xid() ? new ChangeToken(horizon, 0) : since;
+        for (Object[] row : rows.subList(0, Math.min(rows.size(), limit))) {
+            long id = ((Number) row[0]).longValue();
+            Device device = row[1] == null ? null : Device.reconstruct(id, (String) row[1], (String) row[2],
+                    (String) row[3], toLocalDateTime(row[4]), ((Number) row[5]).longValue());
+            changes.add(new DeviceChange(id, device, toLocalDateTime(row[6])));
+            if (hasMore) {
+                nextToken = new ChangeToken(((Number) row[7]).longValue(), ((Number) row[8]).longValue());
+            }
+        }
+        return new DeviceChanges(changes, nextToken, hasMore);
+    }
+
+    @Override
+    @Transactional
+    public int pruneTombstones(Duration retention) {
+        return jpaDeviceRepository.pruneTombstones(retention.toMillis() / 1000.0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count(DeviceFilter filter) {
+        skipCachePutsOnReplica();
+        return jpaDeviceRepository.count(DeviceSpecifications.matching(filter));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginatedResponse<Device> findAllAfter(DeviceFilter filter, DeviceSort sort, Long afterId, int size) {
+        skipCachePutsOnReplica();
+        Specification<JpaDeviceEntity> specification = afterId != null
+                ? DeviceSpecifications.matching(filter).and(DeviceSpecifications.idBeyond(afterId, sort.descending()))
+                : DeviceSpecifications.matching(filter);
 
-        Page<JpaDeviceEntity> jpaPage = jpaDeviceRepository.findAllByBrandOrState(brand, stateName, pageable);
+        List<JpaDeviceEntity> entities = jpaDeviceRepository.findBy(specification,
+                query -> query.sortBy(DeviceSpecifications.toSort(sort)).limit(size + 1).all());
 
-        List<Device> devices = jpaPage.getContent().stream()
+        boolean hasNext = entities.size() > size;
+        List<Device> devices = entities.stream()
+                .limit(size)
                 .map(deviceMapper::fromJpaDeviceEntityToDevice).toList();
+        String nextCursor = hasNext ? Utils.encodeCursor(devices.getLast().getId()) : null;
+
+        return new PaginatedResponse<>(devices, size, hasNext, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(String brand, State state, Consumer<Device> consumer) {
+        String stateName = Utils.getNameFromState(state);
 
-        return  new PaginatedResponse<>(devices, jpaPage.getNumber(), jpaPage.getSize(),
-                jpaPage.getTotalElements(), jpaPage.getTotalPages());
+        try (Stream<JpaDeviceEntity> entities = jpaDeviceRepository.streamAllByBrandOrState(brand, stateName)) {
+            entities.forEach(entity -> {
+                consumer.accept(deviceMapper.fromJpaDeviceEntityToDevice(entity));
+                // keeps the persistence context, and so memory, constant while the cursor is read
+                entityManager.detach(entity);
+            });
+        }
     }
 
     @Override
-    public void delete(Long id) {
-        JpaDeviceEntity entity = jpaDeviceRepository.findById(id)
-                .orElseThrow(() -> new DeviceNotFoundException("Device not found with id: " + id));
-        jpaDeviceRepository.delete(entity);
+    @Transactional
+    public DeviceDeletion delete(Long id, Set<State> deletableStates, Long expectedVersion) {
+        evictFromCache(List.of(id));
+        List<Object[]> rows = jpaDeviceRepository.deleteIfDeletable(id, names(deletableStates), expectedVersion);
+        return rows.isEmpty() ? null : toDeviceDeletion(rows.getFirst());
+    }
+
+    @Override
+    @Transactional
+    public List<DeviceDeletion> deleteAll(List<Long> ids, Set<State> deletableStates) {
+        evictFromCache(ids);
+        List<String> states = names(deletableStates);
+        List<DeviceDeletion> deletions = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            jpaDeviceRepository.deleteAllIfDeletable(chunk, states).forEach(row -> deletions.add(toDeviceDeletion(row)));
+        }
+        return deletions;
+    }
+
+    /*
+     * The native statements change devices without Hibernate knowing, so do what it does for its own bulk updates: mark
+     * the table as being written, which keeps cached lists from being used or stored until the transaction ends, and
+     * evict the devices before and after it, so a load racing the write cannot leave the old row in the cache.
+     */
+    private void evictFromCache(Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        CacheImplementor cache = session.getFactory().getCache();
+        cache.getTimestampsCache().preInvalidate(DEVICE_TABLE, session);
+        ids.forEach(id -> cache.evictEntityData(JpaDeviceEntity.class, id));
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            ids.forEach(id -> cache.evictEntityData(JpaDeviceEntity.class, id));
+            cache.getTimestampsCache().invalidate(DEVICE_TABLE, completedSession);
+        });
+    }
+
+    /*A lagging replica can return rows older than the cached ones; read the cache but leave filling it to the primary.*/
+    private void skipCachePutsOnReplica() {
+        if (ReplicaRoutingDataSource.routedToReplica()) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+
+    private void appendEvents(List<Long> ids, DeviceEventType type, String previousState) {
+        jpaDeviceOutboxRepository.appendFromDevices(ids, type.name(), previousState);
+    }
+
+    private static DeviceDeletion toDeviceDeletion(Object[] row) {
+        return new DeviceDeletion(((Number) row[0]).longValue(), (String) row[1], State.valueOf((String) row[2]),
+                ((Number) row[3]).longValue(), (Boolean) row[4]);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static List<String> names(Set<State> states) {
+        return states.stream().map(State::name).toList();
+    }
 
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package one.global.api.adapter.out.persistence;
+
+import jakarta.persistence.QueryHint;
+import one.global.api.adapter.out.entity.JpaDeviceOutboxEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface JpaDeviceOutboxRepository extends JpaRepository<JpaDeviceOutboxEntity, Long> {
+
+    /*
+     * One INSERT ... SELECT for the whole chunk, reading the devices as just written in this transaction. Declaring the
+     * table written keeps Hibernate from clearing every second-level cache region after it.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "device_outbox"))
+    @Query(value = """
+            INSERT INTO device_outbox (device_id, event_type, name, brand, state, previous_state, version)
+            SELECT d.id, :eventType, d.name, d.brand, d.state, :previousState, d.version
+            FROM device d WHERE d.id IN (:ids) ORDER BY d.id
+            """, nativeQuery = true)
+    int appendFromDevices(@Param("ids") List<Long> ids, @Param("eventType") String eventType,
+                          @Param("previousState") String previousState);
+
+    /*Oldest transaction id still running; everything below it is committed or aborted for good.*/
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)", nativeQuery = true)
+    long horizon();
+
+    /*Events written after (fromXid, afterId) by transactions below the horizon, in commit order.*/
+    @Query(value = """
+            SELECT id, event_type, device_id, name, brand, state, previous_state, version, occurred_at,
+                   CAST(CAST(change_xid AS TEXT) AS BIGINT)
+            FROM device_outbox
+            WHERE (change_xid, id) > (CAST(CAST(:fromXid AS TEXT) AS XID8), :afterId)
+              AND change_xid < CAST(CAST(:horizon AS TEXT) AS XID8)
+            ORDER BY change_xid, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findCommittedAfter(@Param("fromXid") long fromXid, @Param("afterId") long afterId,
+                                      @Param("horizon") long horizon, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "device_outbox"))
+    @Query(value = "DELETE FROM device_outbox WHERE occurred_at < now() - make_interval(secs => :retentionSeconds)",
+            nativeQuery = true)
+    int deleteOlderThan(@Param("retentionSeconds") double retentionSeconds);
+}
@@ -1,20 +1,244 @@
 package one.global.api.adapter.out.persistence;
 
+import jakarta.persistence.QueryHint;
 import one.global.api.adapter.out.entity.JpaDeviceEntity;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface JpaDeviceRepository extends JpaRepository<JpaDeviceEntity, Long> {
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public interface JpaDeviceRepository extends JpaRepository<JpaDeviceEntity, Long>, JpaSpecificationExecutor<JpaDeviceEntity> {
+
+    /*Holds the ids returned by the list queries below; entities come from JpaDeviceEntity's region.*/
+    String QUERY_CACHE_REGION = "device-queries";
 
     JpaDeviceEntity findById(long id);
 
-    @Query("SELECT d FROM JpaDeviceEntity d WHERE (:brand IS NULL OR d.brand = :brand) AND (:state IS NULL OR d.state = :state)")
-    Page<JpaDeviceEntity> findAllByBrandOrState(@Param("brand") String brand, @Param("state") String state, Pageable pageable);
+    /*The filtered device lists (slices and keyset pages) and their counts, answered from the query cache when repeated.*/
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    <S extends JpaDeviceEntity, R> R findBy(Specification<JpaDeviceEntity> spec,
+                                            Function<? super SpecificationFluentQuery<S>, R> queryFunction);
 
-}
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    long count(Specification<JpaDeviceEntity> spec);
+
+    @Query("SELECT d.brand, d.state, COUNT(d) FROM JpaDeviceEntity d GROUP BY d.brand, d.state")
+    List<Object[]> countGroupedByBrandAndState();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            // a full export would otherwise push every device through the second-level cache
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT d FROM JpaDeviceEntity d WHERE (:brand IS NULL OR d.brand = :brand) AND (:state IS NULL OR d.state = :state) ORDER BY d.id")
+    Stream<JpaDeviceEntity> streamAllByBrandOrState(@Param("brand") String brand, @Param("state") String state);
+
+    /*Name or brand matching an ILIKE pattern, best word similarity to the term first. Served by the trigram indexes.*/
+    @Query(value = """
+            SELECT d.* FROM device d
+            WHERE d.name ILIKE :pattern OR d.brand ILIKE :pattern
+            ORDER BY GREATEST(word_similarity(:term, d.name), word_similarity(:term, d.brand)) DESC, d.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<JpaDeviceEntity> searchByPattern(@Param("term") String term, @Param("pattern") String pattern,
+                                          @Param("limit") int limit);
+
+    /*Typo tolerant variant: word similarity above pg_trgm.word_similarity_threshold, set per connection in application.yml.*/
+    @Query(value = """
+            SELECT d.* FROM device d
+            WHERE :term <% d.name OR :term <% d.brand
+            ORDER BY GREATEST(word_similarity(:term, d.name), word_similarity(:term, d.brand)) DESC, d.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<JpaDeviceEntity> searchBySimilarity(@Param("term") String term, @Param("limit") int limit);
 
+    /*
+     * Writes name, brand and state of an existing device against the version it was read at, logging the matching
+     * event in the same statement. No row means no device; null updated columns mean the version moved on.
+     */
+    @Query(value = """
+            WITH locked AS (
+                SELECT id, name, brand, state, version FROM device WHERE id = :id FOR UPDATE
+            ), updated AS (
+                UPDATE device d
+                SET name = :name, brand = :brand, state = :state,
+                    version = CASE WHEN (l.name, l.brand, l.state) = (:name, :brand, :state) THEN d.version
+                                   ELSE d.version + 1 END
+                FROM locked l
+                WHERE d.id = l.id AND l.version = :version
+                RETURNING d.id, d.name, d.brand, d.state, d.creation_date, d.version
+            ), logged AS (
+                INSERT INTO device_outbox (device_id, event_type, name, brand, state, previous_state, version)
+                SELECT u.id, CASE WHEN l.state <> u.state THEN 'STATE_CHANGED' ELSE 'UPDATED' END,
+                       u.name, u.brand, u.state, CASE WHEN l.state <> u.state THEN l.state END, u.version
+                FROM updated u JOIN locked l ON l.id = u.id
+                WHERE (l.name, l.brand, l.state) <> (u.name, u.brand, u.state)
+            )
+            SELECT u.id, u.name, u.brand, u.state, CAST(u.creation_date AS TIMESTAMP), u.version
+            FROM locked l LEFT JOIN updated u ON u.id = l.id
+            """, nativeQuery = true)
+    List<Object[]> updateDevice(@Param("id") long id, @Param("name") String name, @Param("brand") String brand,
+                                @Param("state") String state, @Param("version") long version);
 
+    /*
+     * One round trip: locks the row, applies the change (only at the expected version, when given), and returns the
+     * previous state/version next to the updated row. No row means no device; null updated columns mean the version
+     * moved on. Setting the current state again leaves the version untouched and logs no event.
+     */
+    @Query(value = """
+            WITH locked AS (
+                SELECT id, state, version FROM device WHERE id = :id FOR UPDATE
+            ), updated AS (
+                UPDATE device d
+                SET state = :newState,
+                    version = CASE WHEN d.state = :newState THEN d.version ELSE d.version + 1 END
+                FROM locked l
+                WHERE d.id = l.id
+                  AND (CAST(:expectedVersion AS BIGINT) IS NULL OR l.version = CAST(:expectedVersion AS BIGINT))
+                RETURNING d.id, d.name, d.brand, d.state, d.creation_date, d.version
+            ), logged AS (
+                INSERT INTO device_outbox (device_id, event_type, name, brand, state, previous_state, version)
+                SELECT u.id, 'STATE_CHANGED', u.name, u.brand, u.state, l.state, u.version
+                FROM updated u JOIN locked l ON l.id = u.id
+                WHERE l.state <> u.state
+            )
+            SELECT l.state, l.version, u.id, u.name, u.brand, u.state, CAST(u.creation_date AS TIMESTAMP), u.version
+            FROM locked l LEFT JOIN updated u ON u.id = l.id
+            """, nativeQuery = true)
+    List<Object[]> transitionState(@Param("id") long id, @Param("newState") String newState,
+                                   @Param("expectedVersion") Long expectedVersion);
 
+    /*
+     * Deletes the device only from a deletable state (and expected version) and returns what it was, so not found,
+     * blocked and deleted are told apart without a second query.
+     */
+    @Query(value = """
+            WITH locked AS (
+                SELECT id, brand, state, version FROM device WHERE id = :id FOR UPDATE
+            ), removed AS (
+                DELETE FROM device d
+                USING locked l
+                WHERE d.id = l.id
+                  AND l.state IN (:deletableStates)
+                  AND (CAST(:expectedVersion AS BIGINT) IS NULL OR l.version = CAST(:expectedVersion AS BIGINT))
+                RETURNING d.id, d.name, d.brand, d.state, d.version
+            ), logged AS (
+                INSERT INTO device_outbox (device_id, event_type, name, brand, state, version)
+                SELECT r.id, 'DELETED', r.name, r.brand, r.state, r.version FROM removed r ORDER BY r.id
+            )
+            SELECT l.id, l.brand, l.state, l.version, r.id IS NOT NULL
+            FROM locked l LEFT JOIN removed r ON r.id = l.id
+            """, nativeQuery = true)
+    List<Object[]> deleteIfDeletable(@Param("id") long id, @Param("deletableStates") List<String> deletableStates,
+                                     @Param("expectedVersion") Long expectedVersion);
+
+    @Query(value = """
+            WITH locked AS (
+                SELECT id, brand, state, version FROM device WHERE id IN (:ids) ORDER BY id FOR UPDATE
+            ), removed AS (
+                DELETE FROM device d
+                USING locked l
+                WHERE d.id = l.id
+                  AND l.state IN (:deletableStates)
+                RETURNING d.id, d.name, d.brand, d.state, d.version
+            ), logged AS (
+                INSERT INTO device_outbox (device_id, event_type, name, brand, state, version)
+                SELECT r.id, 'DELETED', r.name, r.brand, r.state, r.version FROM removed r ORDER BY r.id
+            )
+            SELECT l.id, l.brand, l.state, l.version, r.id IS NOT NULL
+            FROM locked l LEFT JOIN removed r ON r.id = l.id
+            """, nativeQuery = true)
+    List<Object[]> deleteAllIfDeletable(@Param("ids") List<Long> ids, @Param("deletableStates") List<String> deletableStates);
+
+    /*Set-based variant for many ids; rows are locked in id order so concurrent bulk calls cannot deadlock.*/
+    @Query(value = """
+            WITH locked AS (
+                SELECT id, brand, state FROM device WHERE id IN (:ids) ORDER BY id FOR UPDATE
+            ), updated AS (
+                UPDATE device d
+                SET state = :newState, version = d.version + 1
+                FROM locked l
+                WHERE d.id = l.id
+                  AND l.state <> :newState
+                RETURNING d.id, d.name, d.brand, d.state, d.version
+            ), logged AS (
+                INSERT INTO device_outbox (device_id, event_type, name, brand, state, previous_state, version)
+                SELECT u.id, 'STATE_CHANGED', u.name, u.brand, u.state, l.state, u.version
+                FROM updated u JOIN locked l ON l.id = u.id ORDER BY u.id
+            )
+            SELECT l.id, l.brand, l.state, u.id IS NOT NULL
+            FROM locked l LEFT JOIN updated u ON u.id = l.id
+            """, nativeQuery = true)
+    List<Object[]> transitionStates(@Param("ids") List<Long> ids, @Param("newState") String newState);
+
+    /*
+     * Oldest transaction id still running (everything below it is committed or aborted for good), then the position
+     * of the newest tombstone pruned so far.
+     */
+    @Query(value = """
+            SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT),
+                   CAST(CAST(f.change_xid AS TEXT) AS BIGINT), f.change_seq
+            FROM device_change_floor f
+            """, nativeQuery = true)
+    List<Object[]> changeBounds();
+
+    /*Deletes the tombstones past the retention and raises the floor to the newest of them, returning how many.*/
+    @Query(value = """
+            WITH pruned AS (
+                DELETE FROM device_tombstone
+                WHERE deleted_at < now() - make_interval(secs => :retentionSeconds)
+                RETURNING change_xid, change_seq
+            ), floor AS (
+                UPDATE device_change_floor f
+                SET change_xid = n.change_xid, change_seq = n.change_seq
+                FROM (SELECT change_xid, change_seq FROM pruned ORDER BY change_xid DESC, change_seq DESC LIMIT 1) n
+                WHERE (n.change_xid, n.change_seq) > (f.change_xid, f.change_seq)
+            )
+            SELECT CAST(count(*) AS INTEGER) FROM pruned
+            """, nativeQuery = true)
+    int pruneTombstones(@Param("retentionSeconds") double retentionSeconds);
+
+    /*
+     * Live devices and tombstones changed after (fromXid, afterSeq) by transactions below the horizon, in feed order.
+     * Deleted devices come back with null columns and the deletion time.
+     */
+    @Query(value = """
+            SELECT c.* FROM (
+                (SELECT d.id, d.name, d.brand, d.state, CAST(d.creation_date AS TIMESTAMP), d.version, d.updated_at,
+                        CAST(CAST(d.change_xid AS TEXT) AS BIGINT) AS xid, d.change_seq AS seq
+                 FROM device d
+                 WHERE (d.change_xid, d.change_seq) > (CAST(CAST(:fromXid AS TEXT) AS XID8), :afterSeq)
+                   AND d.change_xid < CAST(CAST(:horizon AS TEXT) AS XID8)
+                 ORDER BY d.change_xid, d.change_seq
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT t.device_id, NULL, NULL, NULL, NULL, NULL, t.deleted_at,
+                        CAST(CAST(t.change_xid AS TEXT) AS BIGINT), t.change_seq
+                 FROM device_tombstone t
+                 WHERE (t.change_xid, t.change_seq) > (CAST(CAST(:fromXid AS TEXT) AS XID8), :afterSeq)
+                   AND t.change_xid < CAST(CAST(:horizon AS TEXT) AS XID8)
+                 ORDER BY t.change_xid, t.change_seq
+                 LIMIT :limit)
+            ) c
+            ORDER BY c.xid, c.seq
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findChanges(@Param("fromXid") long fromXid, @Param("afterSeq") long afterSeq,
+                               @Param("horizon") long horizon, @Param("limit") int limit);
+}
@@ -0,0 +1,132 @@
+package one.global.api.adapter.out.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import one.global.api.application.port.out.DataSourceRouter;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+ * Hands out primary connections unless the current call was routed to the replica. The web layer names the client of
+ * each request (ClientIdFilter); after a named client writes, its reads stay on the primary for readYourWritesWindow.
+ * Anonymous callers are never pinned, so one of them writing cannot move everyone behind the same proxy off the
+ * replica. Pinning is per instance, so clients should keep talking to the same one within that window.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DataSourceRouter {
+
+    /*Seconds the replica is behind the primary; 0 when it has replayed everything it received or is no standby.*/
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() IS NULL OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                        THEN 0
+                        ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END
+            """;
+
+    private enum Route {PRIMARY, REPLICA}
+
+    private static final ThreadLocal<Route> route = new ThreadLocal<>();
+    private static final ThreadLocal<String> currentClient = new ThreadLocal<>();
+
+    private final DataSource replica;
+    private final Cache<String, Boolean> pinnedClients;
+    private final double maxReplicaLagSeconds;
+    private volatile double replicaLagSeconds;
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow,
+                                    Duration maxReplicaLag) {
+        this.replica = replica;
+        this.pinnedClients = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+        this.maxReplicaLagSeconds = maxReplicaLag.toMillis() / 1000.0;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public <T> T read(Supplier<T> call) {
+        String client = currentClient.get();
+        boolean onReplica = replicaAvailable && replicaLagSeconds <= maxReplicaLagSeconds
+                && (client == null || pinnedClients.getIfPresent(client) == null);
+        return routed(onReplica ? Route.REPLICA : Route.PRIMARY, call);
+    }
+
+    @Override
+    public <T> T write(Supplier<T> call) {
+        T result = routed(Route.PRIMARY, call);
+        String client = currentClient.get();
+        if (client != null) {
+            pinnedClients.put(client, Boolean.TRUE);
+        }
+        return result;
+    }
+
+    @Override
+    public void setCurrentClient(String client) {
+        if (client == null) {
+            currentClient.remove();
+        } else {
+            currentClient.set(client);
+        }
+    }
+
+    /*Measures replication lag; reads fall back to the primary while it is too high or the replica cannot be reached.*/
+    public void checkReplicaLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            replicaLagSeconds = resultSet.getDouble(1);
+            if (!replicaAvailable) {
+                log.info("Replica is reachable again, lag {}s", replicaLagSeconds);
+            }
+            replicaAvailable = true;
+        } catch (SQLException e) {
+            if (replicaAvailable) {
+                log.warn("Replica lag check failed, serving reads from the primary", e);
+            }
+            replicaAvailable = false;
+        }
+    }
+
+    /*Whether the current thread is inside a call routed to the replica.*/
+    public static boolean routedToReplica() {
+        return route.get() == Route.REPLICA;
+    }
+
+    public double replicaLagSeconds() {
+        return replicaAvailable ? replicaLagSeconds : Double.NaN;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route current = route.get();
+        return current == null ? Route.PRIMARY : current;
+    }
+
+    private <T> T routed(Route target, Supplier<T> call) {
+        Route previous = route.get();
+        route.set(target);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                route.remove();
+            } else {
+                route.set(previous);
+            }
+        }
+    }
+}
@@ -1,19 +1,78 @@
 package one.global.api.application.port.in;
 
+import one.global.api.domain.enums.SearchMode;
 import one.global.api.domain.enums.State;
+import one.global.api.domain.model.CreationResult;
+import one.global.api.domain.model.DeletionResult;
 import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceSummary;
+import one.global.api.domain.model.NewDevice;
+import one.global.api.domain.model.TransitionResult;
 import one.global.api.web.dto.PaginatedResponse;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface DeviceUseCase {
     Device createDevice(String name, String brand);
 
+    CreationResult createDevices(List<NewDevice> devices);
+
     Device getDeviceById(Long id);
 
-    PaginatedResponse<Device> getAllDevices(String brand, State state, int page, int size);
+    default PaginatedResponse<Device> getAllDevices(String brand, State state, int page, int size) {
+        return getAllDevices(brand, state, page, size, true);
+    }
+
+    default PaginatedResponse<Device> getAllDevices(String brand, State state, int page, int size, boolean withTotal) {
+        return getAllDevices(DeviceFilter.of(brand, state), DeviceSort.DEFAULT, page, size, withTotal);
+    }
+
+    default PaginatedResponse<Device> getAllDevices(String brand, State state, String after, int size) {
+        return getAllDevices(DeviceFilter.of(brand, state), DeviceSort.DEFAULT, after, size);
+    }
+
+    PaginatedResponse<Device> getAllDevices(DeviceFilter filter, DeviceSort sort, int page, int size, boolean withTotal);
+
+    /*Keyset pagination; only sorting by id is supported since the cursor carries the last id alone.*/
+    PaginatedResponse<Device> getAllDevices(DeviceFilter filter, DeviceSort sort, String after, int size);
+
+    /*Case-insensitive match on name or brand, most relevant first.*/
+    List<Device> searchDevices(String term, SearchMode mode, int limit);
+
+    /*Counts per state and per brand x state, served from the in-memory counters.*/
+    DeviceSummary getDeviceSummary();
+
+    /*Devices created, updated or deleted since the change token; no token starts from the beginning.*/
+    DeviceChanges getDeviceChanges(String since, int limit);
+
+    void exportDevices(String brand, State state, Consumer<Device> consumer);
+
+    default Device updateDevice(Long id, String name, String brand, State state) {
+        return updateDevice(id, name, brand, state, null);
+    }
+
+    /*expectedVersion, when not null, must match the stored version or DeviceVersionConflictException is thrown.*/
+    Device updateDevice(Long id, String name, String brand, State state, Long expectedVersion);
+
+    default Device partiallyUpdateDevice(Long id, String name, String brand, State state) {
+        return partiallyUpdateDevice(id, name, brand, state, null);
+    }
+
+    Device partiallyUpdateDevice(Long id, String name, String brand, State state, Long expectedVersion);
+
+    default void deleteDevice(Long id) {
+        deleteDevice(id, null);
+    }
 
-    Device updateDevice(Long id, String name, String brand, State state);
+    void deleteDevice(Long id, Long expectedVersion);
 
-    Device partiallyUpdateDevice(Long id, String name, String brand, State state);
+    /*Deletes every device that is not in use; results follow the request order, duplicates removed.*/
+    List<DeletionResult> deleteDevices(List<Long> ids);
 
-    void deleteDevice(Long id);
+    /*Moves every device to state in set-based statements; results follow the request order, duplicates removed.*/
+    List<TransitionResult> changeDevicesState(List<Long> ids, State state);
 }
\ No newline at end of file
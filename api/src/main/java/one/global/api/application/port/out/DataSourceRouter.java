@@ -0,0 +1,15 @@
+package one.global.api.application.port.out;
+
+import java.util.function.Supplier;
+
+public interface DataSourceRouter {
+
+    /*Runs the call on a replica, unless the calling client wrote recently or the replica is too far behind.*/
+    <T> T read(Supplier<T> call);
+
+    /*Runs the call on the primary and keeps the calling client's reads there for a while, so it sees its own writes.*/
+    <T> T write(Supplier<T> call);
+
+    /*Names the client the current thread calls for; null (anonymous) when done, or when the caller gave no id.*/
+    void setCurrentClient(String client);
+}
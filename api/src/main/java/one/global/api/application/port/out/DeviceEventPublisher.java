@@ -0,0 +1,23 @@
+package one.global.api.application.port.out;
+
+import one.global.api.domain.model.DeviceEvent;
+
+import java.util.List;
+
+public interface DeviceEventPublisher {
+
+    /*
+     * Called with each outbox batch in commit order. Delivery is at least once: throwing hands this publisher the same
+     * batch again on the next run (other publishers move on), and a durable publisher sees again after a restart what
+     * it published before. Consumers dedupe by the event sequence.
+     */
+    void publish(List<DeviceEvent> events);
+
+    /*
+     * Live publishers (the default) start at the tail: their subscribers only want what is committed from now on. A
+     * durable one starts at the oldest retained event, so what was committed while the instance was down is not skipped.
+     */
+    default boolean durable() {
+        return false;
+    }
+}
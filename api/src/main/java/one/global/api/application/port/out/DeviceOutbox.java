@@ -0,0 +1,21 @@
+package one.global.api.application.port.out;
+
+import one.global.api.domain.model.DeviceEvents;
+import one.global.api.domain.model.OutboxPosition;
+
+import java.time.Duration;
+
+public interface DeviceOutbox {
+
+    /*Position after every event committed so far; reading from it returns only events committed later.*/
+    OutboxPosition tail();
+
+    /*
+     * Committed events after the position in commit order, at most limit. Nothing is locked or removed, so every
+     * instance reads every event from a position of its own.
+     */
+    DeviceEvents readAfter(OutboxPosition position, int limit);
+
+    /*Removes the events written more than retention ago. Returns how many were removed.*/
+    int prune(Duration retention);
+}
@@ -1,13 +1,41 @@
 package one.global.api.application.port.out;
 
+import one.global.api.domain.enums.SearchMode;
 import one.global.api.domain.enums.State;
+import one.global.api.domain.model.ChangeToken;
 import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceDeletion;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceStateChange;
+import one.global.api.domain.model.StateTransition;
 import one.global.api.web.dto.PaginatedResponse;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
 public interface DeviceRepository {
 
     Device save(Device device);
+    List<Device> saveAll(List<Device> devices);
     Device findById(Long id);
-    PaginatedResponse<Device> findAll(String brand, State state, int page, int size);
-    void delete(Long id);
+    /*Reads the stored device past every cache, for writes that must not start from a stale copy.*/
+    Device findCurrentById(Long id);
+    PaginatedResponse<Device> findSlice(DeviceFilter filter, DeviceSort sort, int page, int size);
+    PaginatedResponse<Device> findAllAfter(DeviceFilter filter, DeviceSort sort, Long afterId, int size);
+    long count(DeviceFilter filter);
+    List<DeviceCount> countByBrandAndState();
+    DeviceChanges findChanges(ChangeToken since, int limit);
+    /*Drops tombstones older than the retention; tokens from before them are then rejected as expired.*/
+    int pruneTombstones(Duration retention);
+    List<Device> search(String term, SearchMode mode, int limit);
+    StateTransition transitionState(Long id, State newState, Long expectedVersion);
+    List<DeviceStateChange> transitionStates(List<Long> ids, State newState);
+    void streamAll(String brand, State state, Consumer<Device> consumer);
+    DeviceDeletion delete(Long id, Set<State> deletableStates, Long expectedVersion);
+    List<DeviceDeletion> deleteAll(List<Long> ids, Set<State> deletableStates);
 }
@@ -0,0 +1,142 @@
+package one.global.api.application.service;
+
+import one.global.api.application.port.in.DeviceUseCase;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.exception.ServiceBusyException;
+import one.global.api.domain.model.CreationResult;
+import one.global.api.domain.model.DeletionResult;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceSummary;
+import one.global.api.domain.model.NewDevice;
+import one.global.api.domain.model.TransitionResult;
+import one.global.api.web.dto.PaginatedResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ * Bounds how many use case calls run at once. With virtual threads there is no request thread pool acting as a
+ * limit, so without this every request would queue on the connection pool and time out there instead.
+ */
+public class ConcurrencyLimitedDeviceUseCase implements DeviceUseCase {
+
+    private final DeviceUseCase delegate;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyLimitedDeviceUseCase(DeviceUseCase delegate, int maxConcurrentCalls, Duration acquireTimeout) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Device createDevice(String name, String brand) {
+        return limited(() -> delegate.createDevice(name, brand));
+    }
+
+    @Override
+    public CreationResult createDevices(List<NewDevice> devices) {
+        return limited(() -> delegate.createDevices(devices));
+    }
+
+    @Override
+    public Device getDeviceById(Long id) {
+        return limited(() -> delegate.getDeviceById(id));
+    }
+
+    @Override
+    public PaginatedResponse<Device> getAllDevices(DeviceFilter filter, DeviceSort sort, int page, int size, boolean withTotal) {
+        return limited(() -> delegate.getAllDevices(filter, sort, page, size, withTotal));
+    }
+
+    @Override
+    public PaginatedResponse<Device> getAllDevices(DeviceFilter filter, DeviceSort sort, String after, int size) {
+        return limited(() -> delegate.getAllDevices(filter, sort, after, size));
+    }
+
+    @Override
+    public void exportDevices(String brand, State state, Consumer<Device> consumer) {
+        limited(() -> {
+            delegate.exportDevices(brand, state, consumer);
+            return null;
+        });
+    }
+
+    @Override
+    public Device updateDevice(Long id, String name, String brand, State state, Long expectedVersion) {
+        return limited(() -> delegate.updateDevice(id, name, brand, state, expectedVersion));
+    }
+
+    @Override
+    public Device partiallyUpdateDevice(Long id, String name, String brand, State state, Long expectedVersion) {
+        return limited(() -> delegate.partiallyUpdateDevice(id, name, brand, state, expectedVersion));
+    }
+
+    @Override
+    public void deleteDevice(Long id, Long expectedVersion) {
+        limited(() -> {
+            delegate.deleteDevice(id, expectedVersion);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Device> searchDevices(String term, SearchMode mode, int limit) {
+        return limited(() -> delegate.searchDevices(term, mode, limit));
+    }
+
+    @Override
+    public DeviceSummary getDeviceSummary() {
+        // answered from memory, so dashboard polling does not compete for permits with database calls
+        return delegate.getDeviceSummary();
+    }
+
+    @Override
+    public DeviceChanges getDeviceChanges(String since, int limit) {
+        return limited(() -> delegate.getDeviceChanges(since, limit));
+    }
+
+    @Override
+    public List<DeletionResult> deleteDevices(List<Long> ids) {
+        return limited(() -> delegate.deleteDevices(ids));
+    }
+
+    @Override
+    public List<TransitionResult> changeDevicesState(List<Long> ids, State state) {
+        return limited(() -> delegate.changeDevicesState(ids, state));
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int waitingCalls() {
+        return permits.getQueueLength();
+    }
+
+    private <T> T limited(Supplier<T> call) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new ServiceBusyException("Too many concurrent requests, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for a free slot", e);
+        }
+
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
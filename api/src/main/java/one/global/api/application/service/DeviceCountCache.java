@@ -0,0 +1,140 @@
+package one.global.api.application.service;
+
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceSummary;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Device counts per brand, per state, per brand x state and overall, loaded with a single GROUP BY and then kept up
+ * to date by the use case on every create, update and delete. Writes made by other instances are only picked up when
+ * the counts are reconciled, which the application schedules well within refreshInterval so reads never wait on the
+ * GROUP BY; refreshInterval only takes over if reconciliation stops running.
+ */
+public class DeviceCountCache {
+
+    private final DeviceRepository deviceRepository;
+    private final Duration refreshInterval;
+    private final Clock clock;
+
+    private volatile Map<CountKey, LongAdder> counts;
+    private volatile Instant loadedAt;
+
+    public DeviceCountCache(DeviceRepository deviceRepository, Duration refreshInterval) {
+        this(deviceRepository, refreshInterval, Clock.systemUTC());
+    }
+
+    public DeviceCountCache(DeviceRepository deviceRepository, Duration refreshInterval, Clock clock) {
+        this.deviceRepository = deviceRepository;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+    }
+
+    public long count(String brand, State state) {
+        LongAdder count = currentCounts().get(new CountKey(brand, state));
+        return count != null ? count.sum() : 0L;
+    }
+
+    public DeviceSummary summary() {
+        Map<State, Long> byState = zeroPerState();
+        Map<String, Map<State, Long>> byBrand = new TreeMap<>();
+        currentCounts().forEach((key, count) -> {
+            if (key.brand() == null && key.state() != null) {
+                byState.put(key.state(), count.sum());
+            } else if (key.brand() != null && key.state() != null && count.sum() > 0) {
+                byBrand.computeIfAbsent(key.brand(), brand -> zeroPerState()).put(key.state(), count.sum());
+            }
+        });
+        return new DeviceSummary(count(null, null), byState, byBrand);
+    }
+
+    public void onCreated(String brand, State state) {
+        add(brand, state, 1);
+    }
+
+    public void onDeleted(String brand, State state) {
+        add(brand, state, -1);
+    }
+
+    public void onUpdated(String previousBrand, State previousState, String brand, State state) {
+        if (previousState == state && previousBrand.equals(brand)) {
+            return;
+        }
+        add(previousBrand, previousState, -1);
+        add(brand, state, 1);
+    }
+
+    public void invalidate() {
+        counts = null;
+    }
+
+    /*Replaces the counts with a fresh GROUP BY, correcting drift from other instances and from concurrent updates.*/
+    public synchronized void reconcile() {
+        counts = load();
+        loadedAt = clock.instant();
+    }
+
+    private void add(String brand, State state, long delta) {
+        Map<CountKey, LongAdder> loadedCounts = counts;
+        if (loadedCounts == null) {
+            // nothing loaded yet: the next load reads this change from the database
+            return;
+        }
+        for (CountKey key : CountKey.of(brand, state)) {
+            loadedCounts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private Map<CountKey, LongAdder> currentCounts() {
+        Map<CountKey, LongAdder> loadedCounts = counts;
+        if (loadedCounts != null && loadedAt.plus(refreshInterval).isAfter(clock.instant())) {
+            return loadedCounts;
+        }
+        synchronized (this) {
+            if (counts == null || !loadedAt.plus(refreshInterval).isAfter(clock.instant())) {
+                counts = load();
+                loadedAt = clock.instant();
+            }
+            return counts;
+        }
+    }
+
+    private Map<CountKey, LongAdder> load() {
+        Map<CountKey, LongAdder> loadedCounts = new ConcurrentHashMap<>();
+        for (DeviceCount deviceCount : deviceRepository.countByBrandAndState()) {
+            for (CountKey key : CountKey.of(deviceCount.brand(), deviceCount.state())) {
+                loadedCounts.computeIfAbsent(key, k -> new LongAdder()).add(deviceCount.count());
+            }
+        }
+        return loadedCounts;
+    }
+
+    private static Map<State, Long> zeroPerState() {
+        Map<State, Long> perState = new EnumMap<>(State.class);
+        for (State state : State.values()) {
+            perState.put(state, 0L);
+        }
+        return perState;
+    }
+
+    /*A null brand or state means "any", so each device is counted under four keys.*/
+    private record CountKey(String brand, State state) {
+        static CountKey[] of(String brand, State state) {
+            return new CountKey[]{
+                    new CountKey(brand, state),
+                    new CountKey(brand, null),
+                    new CountKey(null, state),
+                    new CountKey(null, null)
+            };
+        }
+    }
+}
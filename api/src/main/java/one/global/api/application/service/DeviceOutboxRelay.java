@@ -0,0 +1,98 @@
+package one.global.api.application.service;
+
+import one.global.api.application.port.out.DeviceEventPublisher;
+import one.global.api.application.port.out.DeviceOutbox;
+import one.global.api.domain.model.DeviceEvents;
+import one.global.api.domain.model.OutboxPosition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+ * Moves committed device events from the outbox to every publisher of this instance. Each instance reads the whole
+ * outbox and publishes outside any transaction. Every publisher has a position of its own, so one that fails only gets
+ * its own batch again; publishers at the same position share each read. Live publishers start at the tail when the
+ * relay first runs, durable ones at the oldest retained event (see DeviceEventPublisher).
+ */
+public class DeviceOutboxRelay {
+
+    private final DeviceOutbox deviceOutbox;
+    private final List<Cursor> cursors;
+    private final int batchSize;
+    private final Duration retention;
+    private boolean started;
+
+    public DeviceOutboxRelay(DeviceOutbox deviceOutbox, List<DeviceEventPublisher> publishers, int batchSize,
+                             Duration retention) {
+        this.deviceOutbox = deviceOutbox;
+        this.cursors = publishers.stream().map(Cursor::new).toList();
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    /*
+     * Publishes everything committed since the last run, batch by batch, and returns how many events were read for
+     * publishing. A failing publisher is skipped for the rest of the run and its first failure rethrown at the end.
+     */
+    public synchronized int relayPending() {
+        if (!started) {
+            start();
+        }
+        int published = 0;
+        RuntimeException failure = null;
+        List<Cursor> pending = cursors;
+        while (!pending.isEmpty()) {
+            Map<OutboxPosition, List<Cursor>> byPosition = pending.stream()
+                    .collect(Collectors.groupingBy(cursor -> cursor.position, LinkedHashMap::new, Collectors.toList()));
+            pending = new ArrayList<>();
+            for (Map.Entry<OutboxPosition, List<Cursor>> entry : byPosition.entrySet()) {
+                DeviceEvents batch = deviceOutbox.readAfter(entry.getKey(), batchSize);
+                published += batch.events().size();
+                for (Cursor cursor : entry.getValue()) {
+                    try {
+                        if (!batch.events().isEmpty()) {
+                            cursor.publisher.publish(batch.events());
+                        }
+                    } catch (RuntimeException e) {
+                        failure = failure == null ? e : failure;
+                        continue;
+                    }
+                    cursor.position = batch.next();
+                    if (batch.hasMore()) {
+                        pending.add(cursor);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return published;
+    }
+
+    /*Events older than the retention are gone for a relay that falls that far behind.*/
+    public int pruneExpired() {
+        return deviceOutbox.prune(retention);
+    }
+
+    private void start() {
+        OutboxPosition tail = cursors.stream().allMatch(cursor -> cursor.publisher.durable()) ? null : deviceOutbox.tail();
+        for (Cursor cursor : cursors) {
+            cursor.position = cursor.publisher.durable() ? OutboxPosition.START : tail;
+        }
+        started = true;
+    }
+
+    private static final class Cursor {
+        private final DeviceEventPublisher publisher;
+        private OutboxPosition position;
+
+        private Cursor(DeviceEventPublisher publisher) {
+            this.publisher = publisher;
+        }
+    }
+}
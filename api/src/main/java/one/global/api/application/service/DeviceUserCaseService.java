@@ -4,21 +4,63 @@ import one.global.api.application.port.in.DeviceUseCase;
 import one.global.api.application.port.out.DeviceRepository;
 import one.global.api.application.validation.DeviceAttributesValidator;
 import one.global.api.Utils.Utils;
+import one.global.api.domain.enums.DeletionOutcome;
+import one.global.api.domain.enums.DeviceSortKey;
+import one.global.api.domain.enums.SearchMode;
 import one.global.api.domain.enums.State;
+import one.global.api.domain.enums.TransitionOutcome;
+import one.global.api.domain.exception.DeviceInUseException;
 import one.global.api.domain.exception.DeviceNotFoundException;
+import one.global.api.domain.exception.DeviceVersionConflictException;
+import one.global.api.domain.exception.InvalidDeviceParameter;
+import one.global.api.domain.model.CreationResult;
+import one.global.api.domain.model.DeletionResult;
 import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceSummary;
+import one.global.api.domain.model.DeviceDeletion;
+import one.global.api.domain.model.DeviceStateChange;
+import one.global.api.domain.model.NewDevice;
+import one.global.api.domain.model.StateTransition;
+import one.global.api.domain.model.TransitionResult;
+import one.global.api.domain.exception.CreateDeviceException;
 import one.global.api.web.dto.PaginatedResponse;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class DeviceUserCaseService implements DeviceUseCase {
 
+    private static final int MAX_BATCH_SIZE = 10_000;
+    /*Shorter terms have no complete trigram, so the search indexes could not narrow them down.*/
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_CHANGES_LIMIT = 1000;
+
     private final DeviceRepository deviceRepository;
     private final List<DeviceAttributesValidator> createValidators;
+    private final DeviceCountCache deviceCountCache;
 
     public DeviceUserCaseService(DeviceRepository deviceRepository, List<DeviceAttributesValidator> createValidators) {
+        this(deviceRepository, createValidators, new DeviceCountCache(deviceRepository, Duration.ofMinutes(5)));
+    }
+
+    public DeviceUserCaseService(DeviceRepository deviceRepository, List<DeviceAttributesValidator> createValidators,
+                                 DeviceCountCache deviceCountCache) {
         this.deviceRepository = deviceRepository;
         this.createValidators = createValidators;
+        this.deviceCountCache = deviceCountCache;
     }
 
     @Override
@@ -26,7 +68,40 @@ public class DeviceUserCaseService implements DeviceUseCase {
         //here we could validate is the device already exists. In this case, we should implement a more specific equal and hashCode methods in the Device class.
         createValidators.forEach(v -> v.validate(name, brand));
         Device device = new Device(name, brand);
-        return deviceRepository.save(device);
+        Device savedDevice = deviceRepository.save(device);
+        deviceCountCache.onCreated(savedDevice.getBrand(), savedDevice.getState());
+        return savedDevice;
+    }
+
+    @Override
+    public CreationResult createDevices(List<NewDevice> devices) {
+        if (devices == null || devices.isEmpty()) {
+            throw new InvalidDeviceParameter("At least one device must be provided");
+        }
+        if (devices.size() > MAX_BATCH_SIZE) {
+            throw new InvalidDeviceParameter(String.format("A batch accepts at most %d devices", MAX_BATCH_SIZE));
+        }
+
+        List<Device> validDevices = new ArrayList<>(devices.size());
+        List<CreationResult.Rejection> rejected = new ArrayList<>();
+        for (int index = 0; index < devices.size(); index++) {
+            NewDevice request = devices.get(index);
+            try {
+                if (request == null) {
+                    throw new InvalidDeviceParameter("Device must not be null");
+                }
+                createValidators.forEach(v -> v.validate(request.name(), request.brand()));
+                validDevices.add(new Device(request.name(), request.brand()));
+            } catch (InvalidDeviceParameter e) {
+                rejected.add(new CreationResult.Rejection(index, "INVALID_PARAMETER_ERROR", e.getMessage()));
+            } catch (CreateDeviceException e) {
+                rejected.add(new CreationResult.Rejection(index, "DEVICE_CREATION_ERROR", e.getMessage()));
+            }
+        }
+
+        List<Device> createdDevices = validDevices.isEmpty() ? List.of() : deviceRepository.saveAll(validDevices);
+        createdDevices.forEach(createdDevice -> deviceCountCache.onCreated(createdDevice.getBrand(), createdDevice.getState()));
+        return new CreationResult(createdDevices, rejected);
     }
 
     @Override
@@ -39,23 +114,80 @@ public class DeviceUserCaseService implements DeviceUseCase {
 
     }
     @Override
-    public PaginatedResponse<Device> getAllDevices(String brand, State state, int page, int size) {
-        return deviceRepository.findAll(brand, state, page, size);
+    public PaginatedResponse<Device> getAllDevices(DeviceFilter filter, DeviceSort sort, int page, int size, boolean withTotal) {
+        if (page < 0 || size < 1) {
+            throw new InvalidDeviceParameter("Page must not be negative and size must be greater than zero");
+        }
+        PaginatedResponse<Device> slice = deviceRepository.findSlice(filter, sort, page, size);
+        if (!withTotal) {
+            return slice;
+        }
+
+        long totalElements = countDevices(filter);
+        int totalPages = (int) ((totalElements + size - 1) / size);
+        return new PaginatedResponse<>(slice.getContent(), page, size, totalElements, totalPages);
+    }
+
+    @Override
+    public PaginatedResponse<Device> getAllDevices(DeviceFilter filter, DeviceSort sort, String after, int size) {
+        if (size < 1) {
+            throw new InvalidDeviceParameter("Page size must be greater than zero");
+        }
+        if (sort.key() != DeviceSortKey.ID) {
+            throw new InvalidDeviceParameter("Cursor pagination only supports sorting by id");
+        }
+        return deviceRepository.findAllAfter(filter, sort, Utils.decodeCursor(after), size);
+    }
+
+    /*Totals per brand and state are cached, so brand/state combinations are summed in memory; date ranges are counted in SQL.*/
+    private long countDevices(DeviceFilter filter) {
+        if (filter.hasDateRange()) {
+            return deviceRepository.count(filter);
+        }
+        long totalElements = 0;
+        for (String brand : anyIfEmpty(filter.brands())) {
+            for (State state : anyIfEmpty(filter.states())) {
+                totalElements += deviceCountCache.count(brand, state);
+            }
+        }
+        return totalElements;
+    }
+
+    private static <T> Collection<T> anyIfEmpty(Set<T> values) {
+        return values.isEmpty() ? Collections.singleton(null) : values;
+    }
+
+    @Override
+    public void exportDevices(String brand, State state, Consumer<Device> consumer) {
+        deviceRepository.streamAll(brand, state, consumer);
     }
 
     @Override
-    public Device updateDevice(Long id, String name, String brand, State state) {
-        Device device = getDeviceById(id);
+    public Device updateDevice(Long id, String name, String brand, State state, Long expectedVersion) {
+        Device device = getDeviceForUpdate(id);
+        ensureVersionMatches(device, expectedVersion);
+        String previousBrand = device.getBrand();
+        State previousState = device.getState();
+
         createValidators.forEach(v -> v.validate(name, brand));
         device.updateDetails(name, brand);
         device.changeState(state);
-        return deviceRepository.save(device);
+
+        Device savedDevice = deviceRepository.save(device);
+        deviceCountCache.onUpdated(previousBrand, previousState, savedDevice.getBrand(), savedDevice.getState());
+        return savedDevice;
     }
 
     @Override
-    public Device partiallyUpdateDevice(Long id, String name, String brand, State state) {
-        Device device = getDeviceById(id);
+    public Device partiallyUpdateDevice(Long id, String name, String brand, State state, Long expectedVersion) {
+        if (state != null && !Utils.isUpdatingNameAndBrand(name, brand)) {
+            return transitionState(id, state, expectedVersion);
+        }
+
+        Device device = getDeviceForUpdate(id);
+        ensureVersionMatches(device, expectedVersion);
 
+        String currentBrand = device.getBrand();
         State currentState = device.getState();
 
         if (Utils.isUpdatingNameAndBrand(name, brand)) {
@@ -66,16 +198,151 @@ public class DeviceUserCaseService implements DeviceUseCase {
             device.changeState(state);
         }
 
-       return deviceRepository.save(device);
+        Device savedDevice = deviceRepository.save(device);
+        deviceCountCache.onUpdated(currentBrand, currentState, device.getBrand(), device.getState());
+        return savedDevice;
 
     }
 
     @Override
-    public void deleteDevice(Long id) {
-        Device device = getDeviceById(id);
-        device.ensureCanBeDeleted();
-        deviceRepository.delete(id);
+    public void deleteDevice(Long id, Long expectedVersion) {
+        DeviceDeletion deletion = deviceRepository.delete(id, Device.deletableStates(), expectedVersion);
+        if (deletion == null) {
+            throw new DeviceNotFoundException(String.format("Device with id %s not found", id));
+        }
+        if (!deletion.deleted()) {
+            ensureVersionMatches(id, deletion.version(), expectedVersion);
+            throw new DeviceInUseException("Cannot delete device: it is currently in use.");
+        }
+        deviceCountCache.onDeleted(deletion.brand(), deletion.state());
+
+    }
+
+    @Override
+    public List<Device> searchDevices(String term, SearchMode mode, int limit) {
+        String searchTerm = term != null ? term.strip() : "";
+        if (searchTerm.length() < MIN_SEARCH_TERM_LENGTH) {
+            throw new InvalidDeviceParameter(String.format("Search term must have at least %d characters", MIN_SEARCH_TERM_LENGTH));
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new InvalidDeviceParameter(String.format("Search limit must be between 1 and %d", MAX_SEARCH_LIMIT));
+        }
+        return deviceRepository.search(searchTerm, mode, limit);
+    }
+
+    @Override
+    public DeviceSummary getDeviceSummary() {
+        return deviceCountCache.summary();
+    }
+
+    @Override
+    public DeviceChanges getDeviceChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_CHANGES_LIMIT) {
+            throw new InvalidDeviceParameter(String.format("Changes limit must be between 1 and %d", MAX_CHANGES_LIMIT));
+        }
+        return deviceRepository.findChanges(Utils.decodeChangeToken(since), limit);
+    }
+
+    @Override
+    public List<DeletionResult> deleteDevices(List<Long> ids) {
+        Set<Long> requestedIds = validateBatchIds(ids);
+        Map<Long, DeviceDeletion> deletions = new HashMap<>(requestedIds.size() * 2);
+        deviceRepository.deleteAll(requestedIds.stream().sorted().toList(), Device.deletableStates())
+                .forEach(deletion -> deletions.put(deletion.id(), deletion));
+
+        List<DeletionResult> results = new ArrayList<>(requestedIds.size());
+        for (Long id : requestedIds) {
+            DeviceDeletion deletion = deletions.get(id);
+            if (deletion == null) {
+                results.add(new DeletionResult(id, DeletionOutcome.NOT_FOUND));
+            } else if (deletion.deleted()) {
+                deviceCountCache.onDeleted(deletion.brand(), deletion.state());
+                results.add(new DeletionResult(id, DeletionOutcome.DELETED));
+            } else {
+                results.add(new DeletionResult(id, DeletionOutcome.IN_USE));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<TransitionResult> changeDevicesState(List<Long> ids, State state) {
+        Set<Long> requestedIds = validateBatchIds(ids);
+        if (state == null) {
+            throw new InvalidDeviceParameter("State cannot be null");
+        }
+        Map<Long, DeviceStateChange> changes = new HashMap<>(requestedIds.size() * 2);
+        deviceRepository.transitionStates(requestedIds.stream().sorted().toList(), state)
+                .forEach(change -> changes.put(change.id(), change));
+
+        List<TransitionResult> results = new ArrayList<>(requestedIds.size());
+        for (Long id : requestedIds) {
+            DeviceStateChange change = changes.get(id);
+            if (change == null) {
+                results.add(new TransitionResult(id, TransitionOutcome.NOT_FOUND, null));
+            } else if (change.changed()) {
+                deviceCountCache.onUpdated(change.brand(), change.previousState(), change.brand(), state);
+                results.add(new TransitionResult(id, TransitionOutcome.CHANGED, change.previousState()));
+            } else {
+                results.add(new TransitionResult(id, TransitionOutcome.UNCHANGED, change.previousState()));
+            }
+        }
+        return results;
+    }
+
+    private Set<Long> validateBatchIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidDeviceParameter("At least one device id must be provided");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidDeviceParameter(String.format("A batch accepts at most %d devices", MAX_BATCH_SIZE));
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidDeviceParameter("Device id must not be null");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    /*State-only changes are checked and applied by the database in one statement, so no stale read can be saved back.*/
+    private Device transitionState(Long id, State state, Long expectedVersion) {
+        StateTransition transition = deviceRepository.transitionState(id, state, expectedVersion);
+        if (transition == null) {
+            throw new DeviceNotFoundException(String.format("Device with id %s not found", id));
+        }
+        if (!transition.applied()) {
+            throw versionConflict(id, transition.previousVersion(), expectedVersion);
+        }
+
+        Device device = transition.device();
+        deviceCountCache.onUpdated(device.getBrand(), transition.previousState(), device.getBrand(), device.getState());
+        return device;
+    }
+
+    /*
+     * Updates start from the stored device, not the cached copy: its version guards the write, so a copy another
+     * instance has already moved past would fail it, and an If-Match version is compared with it.
+     */
+    private Device getDeviceForUpdate(Long id) {
+        Device device = deviceRepository.findCurrentById(id);
+        if (device == null) {
+            throw new DeviceNotFoundException(String.format("Device with id %s not found", id));
+        }
+        return device;
+    }
+
+    private void ensureVersionMatches(Device device, Long expectedVersion) {
+        ensureVersionMatches(device.getId(), device.getVersion(), expectedVersion);
+    }
+
+    private void ensureVersionMatches(Long id, Long version, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw versionConflict(id, version, expectedVersion);
+        }
+    }
 
+    private static DeviceVersionConflictException versionConflict(Long id, Long version, Long expectedVersion) {
+        return new DeviceVersionConflictException(String.format(
+                "Device with id %s is at version %s, expected %s", id, version, expectedVersion));
     }
 
 }
@@ -0,0 +1,125 @@
+package one.global.api.application.service;
+
+import one.global.api.application.port.in.DeviceUseCase;
+import one.global.api.application.port.out.DataSourceRouter;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.CreationResult;
+import one.global.api.domain.model.DeletionResult;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeviceSummary;
+import one.global.api.domain.model.NewDevice;
+import one.global.api.domain.model.TransitionResult;
+import one.global.api.web.dto.PaginatedResponse;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ * Sends the read-only calls named in replicaMethods to a replica and every mutation to the primary. Reads not named
+ * there stay on the primary without pinning the client to it.
+ */
+public class ReadWriteRoutingDeviceUseCase implements DeviceUseCase {
+
+    static final Set<String> READ_ONLY_METHODS = Set.of("getDeviceById", "getAllDevices", "searchDevices",
+            "getDeviceChanges", "exportDevices");
+
+    private final DeviceUseCase delegate;
+    private final DataSourceRouter router;
+    private final Set<String> replicaMethods;
+
+    public ReadWriteRoutingDeviceUseCase(DeviceUseCase delegate, DataSourceRouter router, Set<String> replicaMethods) {
+        if (!READ_ONLY_METHODS.containsAll(replicaMethods)) {
+            throw new IllegalArgumentException("Only read-only methods can be served by a replica, one of "
+                    + READ_ONLY_METHODS + ", got " + replicaMethods);
+        }
+        this.delegate = delegate;
+        this.router = router;
+        this.replicaMethods = Set.copyOf(replicaMethods);
+    }
+
+    @Override
+    public Device createDevice(String name, String brand) {
+        return router.write(() -> delegate.createDevice(name, brand));
+    }
+
+    @Override
+    public CreationResult createDevices(List<NewDevice> devices) {
+        return router.write(() -> delegate.createDevices(devices));
+    }
+
+    @Override
+    public Device getDeviceById(Long id) {
+        return read("getDeviceById", () -> delegate.getDeviceById(id));
+    }
+
+    @Override
+    public PaginatedResponse<Device> getAllDevices(DeviceFilter filter, DeviceSort sort, int page, int size, boolean withTotal) {
+        return read("getAllDevices", () -> delegate.getAllDevices(filter, sort, page, size, withTotal));
+    }
+
+    @Override
+    public PaginatedResponse<Device> getAllDevices(DeviceFilter filter, DeviceSort sort, String after, int size) {
+        return read("getAllDevices", () -> delegate.getAllDevices(filter, sort, after, size));
+    }
+
+    @Override
+    public List<Device> searchDevices(String term, SearchMode mode, int limit) {
+        return read("searchDevices", () -> delegate.searchDevices(term, mode, limit));
+    }
+
+    @Override
+    public DeviceSummary getDeviceSummary() {
+        return delegate.getDeviceSummary();
+    }
+
+    @Override
+    public DeviceChanges getDeviceChanges(String since, int limit) {
+        return read("getDeviceChanges", () -> delegate.getDeviceChanges(since, limit));
+    }
+
+    @Override
+    public void exportDevices(String brand, State state, Consumer<Device> consumer) {
+        read("exportDevices", () -> {
+            delegate.exportDevices(brand, state, consumer);
+            return null;
+        });
+    }
+
+    @Override
+    public Device updateDevice(Long id, String name, String brand, State state, Long expectedVersion) {
+        return router.write(() -> delegate.updateDevice(id, name, brand, state, expectedVersion));
+    }
+
+    @Override
+    public Device partiallyUpdateDevice(Long id, String name, String brand, State state, Long expectedVersion) {
+        return router.write(() -> delegate.partiallyUpdateDevice(id, name, brand, state, expectedVersion));
+    }
+
+    @Override
+    public void deleteDevice(Long id, Long expectedVersion) {
+        router.write(() -> {
+            delegate.deleteDevice(id, expectedVersion);
+            return null;
+        });
+    }
+
+    @Override
+    public List<DeletionResult> deleteDevices(List<Long> ids) {
+        return router.write(() -> delegate.deleteDevices(ids));
+    }
+
+    @Override
+    public List<TransitionResult> changeDevicesState(List<Long> ids, State state) {
+        return router.write(() -> delegate.changeDevicesState(ids, state));
+    }
+
+    private <T> T read(String method, Supplier<T> call) {
+        return replicaMethods.contains(method) ? router.read(call) : call.get();
+    }
+}
@@ -1,23 +1,56 @@
 package one.global.api.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import one.global.api.application.port.in.DeviceUseCase;
+import one.global.api.application.port.out.DataSourceRouter;
 import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.application.service.ConcurrencyLimitedDeviceUseCase;
+import one.global.api.application.service.DeviceCountCache;
 import one.global.api.application.service.DeviceUserCaseService;
+import one.global.api.application.service.ReadWriteRoutingDeviceUseCase;
 import one.global.api.application.validation.DeviceAttributesValidator;
 import one.global.api.application.validation.NameBrandValidation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 public class AppConfig {
 
     @Bean
     public DeviceUseCase deviceUseCase(DeviceRepository deviceRepository,
-                                       List<DeviceAttributesValidator> deviceAttributesValidators) {
-        return new DeviceUserCaseService(deviceRepository, deviceAttributesValidators);
+                                       List<DeviceAttributesValidator> deviceAttributesValidators,
+                                       DeviceCountCache deviceCountCache,
+                                       ObjectProvider<DataSourceRouter> dataSourceRouter,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${device.datasource.routing.replica-methods}") Set<String> replicaMethods,
+                                       @Value("${device.concurrency.max-concurrent-calls}") int maxConcurrentCalls,
+                                       @Value("${device.concurrency.acquire-timeout}") Duration acquireTimeout) {
+        DeviceUseCase deviceUseCase = new DeviceUserCaseService(deviceRepository, deviceAttributesValidators, deviceCountCache);
+        DataSourceRouter router = dataSourceRouter.getIfAvailable();
+        if (router != null) {
+            deviceUseCase = new ReadWriteRoutingDeviceUseCase(deviceUseCase, router, replicaMethods);
+        }
+        var limitedDeviceUseCase = new ConcurrencyLimitedDeviceUseCase(deviceUseCase, maxConcurrentCalls, acquireTimeout);
+        Gauge.builder("device.usecase.concurrency.in-flight", limitedDeviceUseCase,
+                        limited -> maxConcurrentCalls - limited.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("device.usecase.concurrency.waiting", limitedDeviceUseCase, ConcurrencyLimitedDeviceUseCase::waitingCalls)
+                .register(meterRegistry);
+        return limitedDeviceUseCase;
+    }
+
+    @Bean
+    public DeviceCountCache deviceCountCache(DeviceRepository deviceRepository,
+                                             @Value("${device.count-cache.refresh-interval:5m}") Duration refreshInterval) {
+        return new DeviceCountCache(deviceRepository, refreshInterval);
     }
 
     /*Validators for device registering*/
@@ -0,0 +1,36 @@
+package one.global.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import one.global.api.adapter.out.cache.CachingDeviceRepository;
+import one.global.api.adapter.out.persistence.DeviceRespositoryAdapter;
+import one.global.api.domain.model.Device;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "device.cache.enabled", havingValue = "true")
+public class DeviceCacheConfig {
+
+    @Bean
+    @Primary
+    public CachingDeviceRepository cachingDeviceRepository(DeviceRespositoryAdapter deviceRespositoryAdapter,
+                                                           MeterRegistry meterRegistry,
+                                                           @Value("${device.cache.maximum-size}") long maximumSize,
+                                                           @Value("${device.cache.ttl}") Duration ttl) {
+        Cache<Long, Device> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "devices");
+        return new CachingDeviceRepository(deviceRespositoryAdapter, cache);
+    }
+}
@@ -0,0 +1,43 @@
+package one.global.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.events.FileDeviceEventPublisher;
+import one.global.api.application.port.out.DeviceEventPublisher;
+import one.global.api.application.port.out.DeviceOutbox;
+import one.global.api.application.service.DeviceOutboxRelay;
+import one.global.api.web.events.SseDeviceEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class DeviceEventsConfig {
+
+    @Bean
+    public DeviceOutboxRelay deviceOutboxRelay(DeviceOutbox deviceOutbox, List<DeviceEventPublisher> publishers,
+                                               @Value("${device.events.relay-batch-size}") int batchSize,
+                                               @Value("${device.events.retention}") Duration retention) {
+        return new DeviceOutboxRelay(deviceOutbox, publishers, batchSize, retention);
+    }
+
+    /*Publishers: every relayed batch goes to each of them*/
+    @Bean
+    public SseDeviceEventPublisher sseDeviceEventPublisher(DeviceMapper deviceMapper,
+                                                           @Value("${device.events.sse-timeout}") Duration timeout,
+                                                           @Value("${device.events.sse-buffer}") int bufferSize) {
+        return new SseDeviceEventPublisher(deviceMapper, timeout, bufferSize);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "device.events.file")
+    public FileDeviceEventPublisher fileDeviceEventPublisher(@Value("${device.events.file}") Path file,
+                                                             DeviceMapper deviceMapper, ObjectMapper objectMapper) {
+        return new FileDeviceEventPublisher(file, deviceMapper, objectMapper);
+    }
+}
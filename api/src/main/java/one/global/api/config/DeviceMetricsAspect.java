@@ -0,0 +1,109 @@
+package one.global.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Times every use case call, every call into the persistence adapters (so cache hits are not counted as queries) and
+ * every mapping. Use case and adapter timers carry the filter shape, always with the same tag keys as Prometheus
+ * requires, so slow list variants can be told apart.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class DeviceMetricsAspect {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<JoinPoint.StaticPart, Timer> mapperTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(* one.global.api.application.port.in.DeviceUseCase.*(..))")
+    public Object timeUseCase(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("device.usecase", joinPoint, filterShape(joinPoint.getArgs()), true);
+    }
+
+    @Around("execution(public * one.global.api.adapter.out..*Adapter.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("device.repository", joinPoint, filterShape(joinPoint.getArgs()), true);
+    }
+
+    /*Called once per mapped row, so the timer of each mapper method is resolved once rather than on every call.*/
+    @Around("execution(* one.global.api.adapter.out.DeviceMapper.*(..))")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(mapperTimers.computeIfAbsent(joinPoint.getStaticPart(),
+                    part -> timer("device.mapper", part.getSignature(), Tags.empty(), NONE, false)));
+            return result;
+        } catch (Throwable e) {
+            sample.stop(timer("device.mapper", joinPoint.getSignature(), Tags.empty(), e.getClass().getSimpleName(), false));
+            throw e;
+        }
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint, Tags tags, boolean histogram) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timer(name, joinPoint.getSignature(), tags, exception, histogram));
+        }
+    }
+
+    private Timer timer(String name, Signature signature, Tags tags, String exception, boolean histogram) {
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("class", signature.getDeclaringType().getSimpleName())
+                .tag("method", signature.getName())
+                .tag("exception", exception)
+                .publishPercentileHistogram(histogram)
+                .register(meterRegistry);
+    }
+
+    private static Tags filterShape(Object[] args) {
+        String brand = NONE;
+        String state = NONE;
+        String createdRange = NONE;
+        String sort = NONE;
+        String mode = NONE;
+        for (Object arg : args) {
+            if (arg instanceof DeviceFilter filter) {
+                brand = cardinality(filter.brands());
+                state = cardinality(filter.states());
+                createdRange = String.valueOf(filter.hasDateRange());
+            } else if (arg instanceof DeviceSort deviceSort) {
+                sort = deviceSort.key().getProperty() + (deviceSort.descending() ? ",desc" : ",asc");
+            } else if (arg instanceof SearchMode searchMode) {
+                mode = searchMode.name().toLowerCase();
+            }
+        }
+        return Tags.of("brand", brand, "state", state, "createdRange", createdRange, "sort", sort, "mode", mode);
+    }
+
+    private static String cardinality(Set<?> values) {
+        return switch (values.size()) {
+            case 0 -> "any";
+            case 1 -> "one";
+            default -> "many";
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package one.global.api.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import one.global.api.adapter.out.entity.JpaDeviceEntity;
+import one.global.api.adapter.out.persistence.JpaDeviceRepository;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/*
+ * Hibernate's second-level cache, held in Caffeine through JCache: device rows by id and the ids returned by repeated
+ * list queries. Each region is bounded on its own; timestamps, which tell Hibernate whether a cached list is still
+ * valid, are never evicted.
+ */
+@Configuration
+@Profile("!in-memory")
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${device.second-level-cache.entities.maximum-size}") long entitiesMaximumSize,
+                                              @Value("${device.second-level-cache.entities.ttl}") Duration entitiesTtl,
+                                              @Value("${device.second-level-cache.queries.maximum-size}") long queriesMaximumSize,
+                                              @Value("${device.second-level-cache.queries.ttl}") Duration queriesTtl) {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // a manager of its own, so application contexts sharing the JVM (tests) do not share regions
+        CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate-" + UUID.randomUUID()),
+                getClass().getClassLoader());
+        cacheManager.createCache(JpaDeviceEntity.CACHE_REGION, region(entitiesMaximumSize, entitiesTtl));
+        cacheManager.createCache(JpaDeviceRepository.QUERY_CACHE_REGION, region(queriesMaximumSize, queriesTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queriesMaximumSize, queriesTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        var configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+}
@@ -0,0 +1,58 @@
+package one.global.api.config;
+
+import one.global.api.adapter.out.journal.FileDeviceJournal;
+import one.global.api.adapter.out.journal.JournalDeviceRepositoryAdapter;
+import one.global.api.adapter.out.memory.DeviceStoreListener;
+import one.global.api.adapter.out.memory.InMemoryDeviceOutboxAdapter;
+import one.global.api.adapter.out.memory.InMemoryDeviceRepositoryAdapter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@Profile("in-memory")
+public class InMemoryStoreConfig {
+
+    @Bean
+    public InMemoryDeviceOutboxAdapter inMemoryDeviceOutboxAdapter() {
+        return new InMemoryDeviceOutboxAdapter();
+    }
+
+    /*Recovered from the journal, when there is one, before anything can read or write it.*/
+    @Bean
+    public InMemoryDeviceRepositoryAdapter inMemoryDeviceRepositoryAdapter(InMemoryDeviceOutboxAdapter outbox,
+                                                                           ObjectProvider<FileDeviceJournal> journal,
+                                                                           @Value("${device.search.fuzzy-threshold}") double fuzzyThreshold)
+            throws IOException {
+        FileDeviceJournal deviceJournal = journal.getIfAvailable();
+        if (deviceJournal == null) {
+            return new InMemoryDeviceRepositoryAdapter(outbox, DeviceStoreListener.NONE, fuzzyThreshold);
+        }
+        InMemoryDeviceRepositoryAdapter store = new InMemoryDeviceRepositoryAdapter(outbox, deviceJournal, fuzzyThreshold);
+        deviceJournal.recover(store);
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "device.journal.directory")
+    public FileDeviceJournal fileDeviceJournal(@Value("${device.journal.directory}") Path directory) {
+        return new FileDeviceJournal(directory);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "device.journal.directory")
+    public JournalDeviceRepositoryAdapter journalDeviceRepositoryAdapter(InMemoryDeviceRepositoryAdapter store,
+                                                                         FileDeviceJournal journal,
+                                                                         @Value("${device.journal.compact-threshold}") DataSize compactThreshold) {
+        return new JournalDeviceRepositoryAdapter(store, journal, compactThreshold.toBytes());
+    }
+}
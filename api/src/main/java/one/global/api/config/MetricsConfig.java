@@ -0,0 +1,54 @@
+package one.global.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public DeviceMetricsAspect deviceMetricsAspect(MeterRegistry meterRegistry) {
+        return new DeviceMetricsAspect(meterRegistry);
+    }
+
+    /*
+     * Busy plus waiting connections over the pool size: above 1 requests queue for a connection. The raw counts are
+     * already published by Spring Boot as hikaricp_connections_*.
+     */
+    @Bean
+    public MeterBinder connectionPoolSaturation(ObjectProvider<DataSource> dataSources) {
+        return registry -> {
+            // no DataSource at all under the in-memory profile
+            DataSource dataSource = dataSources.getIfAvailable();
+            if (dataSource == null) {
+                return;
+            }
+            HikariDataSource hikariDataSource;
+            try {
+                hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+            } catch (SQLException e) {
+                return;
+            }
+            Gauge.builder("device.db.pool.saturation", hikariDataSource, MetricsConfig::saturation)
+                    .description("(active + pending connections) / maximum pool size")
+                    .register(registry);
+        };
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection()) / dataSource.getMaximumPoolSize();
+    }
+}
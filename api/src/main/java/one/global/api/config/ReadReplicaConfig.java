@@ -0,0 +1,64 @@
+package one.global.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.global.api.adapter.out.persistence.ReplicaRoutingDataSource;
+import one.global.api.web.routing.ClientIdFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/*
+ * Only when device.datasource.replica.jdbc-url is set. Declaring the pools here replaces Spring Boot's single
+ * DataSource; Flyway, JPA and the scheduled jobs get the routing one, which stays on the primary outside routed calls.
+ */
+@Configuration
+@Profile("!in-memory")
+@ConditionalOnProperty(name = "device.datasource.replica.jdbc-url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("device.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      HikariDataSource replicaDataSource,
+                                                      MeterRegistry meterRegistry,
+                                                      @Value("${device.datasource.routing.read-your-writes-window}") Duration readYourWritesWindow,
+                                                      @Value("${device.datasource.routing.max-replica-lag}") Duration maxReplicaLag) {
+        var routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesWindow,
+                maxReplicaLag);
+        Gauge.builder("device.db.replica.lag", routingDataSource, ReplicaRoutingDataSource::replicaLagSeconds)
+                .description("Seconds the replica is behind the primary, NaN while it is unreachable")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return routingDataSource;
+    }
+
+    @Bean
+    public ClientIdFilter clientIdFilter(ReplicaRoutingDataSource routingDataSource) {
+        return new ClientIdFilter(routingDataSource);
+    }
+}
@@ -0,0 +1,63 @@
+package one.global.api.config;
+
+import lombok.RequiredArgsConstructor;
+import one.global.api.adapter.out.journal.JournalDeviceRepositoryAdapter;
+import one.global.api.adapter.out.persistence.ReplicaRoutingDataSource;
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.application.service.DeviceCountCache;
+import one.global.api.application.service.DeviceOutboxRelay;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+@RequiredArgsConstructor
+public class SchedulingConfig {
+
+    private final DeviceCountCache deviceCountCache;
+    private final DeviceOutboxRelay deviceOutboxRelay;
+    private final DeviceRepository deviceRepository;
+    private final ObjectProvider<JournalDeviceRepositoryAdapter> journalDeviceRepository;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    @Value("${device.changes.tombstone-retention}")
+    private Duration tombstoneRetention;
+
+    /*Runs once at startup, so the first summary request is already served from memory.*/
+    @Scheduled(initialDelay = 0, fixedDelayString = "${device.count-cache.reconcile-interval}")
+    public void reconcileDeviceCounts() {
+        deviceCountCache.reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${device.events.relay-interval}")
+    public void relayDeviceEvents() {
+        deviceOutboxRelay.relayPending();
+    }
+
+    @Scheduled(fixedDelayString = "${device.events.prune-interval}")
+    public void pruneDeviceEvents() {
+        deviceOutboxRelay.pruneExpired();
+    }
+
+    @Scheduled(fixedDelayString = "${device.changes.prune-interval}")
+    public void pruneDeviceTombstones() {
+        deviceRepository.pruneTombstones(tombstoneRetention);
+    }
+
+    /*Only in the in-memory profile with a journal directory configured.*/
+    @Scheduled(fixedDelayString = "${device.journal.compact-interval}")
+    public void compactDeviceJournal() {
+        journalDeviceRepository.ifAvailable(JournalDeviceRepositoryAdapter::compactIfNeeded);
+    }
+
+    /*Only with a read replica configured.*/
+    @Scheduled(fixedDelayString = "${device.datasource.routing.lag-check-interval}")
+    public void checkReplicaLag() {
+        replicaRoutingDataSource.ifAvailable(ReplicaRoutingDataSource::checkReplicaLag);
+    }
+}
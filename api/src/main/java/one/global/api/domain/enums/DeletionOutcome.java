@@ -0,0 +1,7 @@
+package one.global.api.domain.enums;
+
+public enum DeletionOutcome {
+    DELETED,
+    NOT_FOUND,
+    IN_USE
+}
@@ -0,0 +1,8 @@
+package one.global.api.domain.enums;
+
+public enum DeviceEventType {
+    CREATED,
+    UPDATED,
+    STATE_CHANGED,
+    DELETED
+}
@@ -0,0 +1,30 @@
+package one.global.api.domain.enums;
+
+import one.global.api.domain.exception.InvalidDeviceParameter;
+
+/*Sort keys accepted by the list endpoint, each backed by an index that ends in id, the tie-breaker (V3 and V9).*/
+public enum DeviceSortKey {
+    ID("id"),
+    NAME("name"),
+    BRAND("brand"),
+    CREATION_DATE("creationDate");
+
+    private final String property;
+
+    DeviceSortKey(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static DeviceSortKey from(String property) {
+        for (DeviceSortKey sortKey : values()) {
+            if (sortKey.property.equalsIgnoreCase(property)) {
+                return sortKey;
+            }
+        }
+        throw new InvalidDeviceParameter("Unsupported sort key: " + property);
+    }
+}
@@ -0,0 +1,18 @@
+package one.global.api.domain.enums;
+
+import one.global.api.domain.exception.InvalidDeviceParameter;
+
+public enum SearchMode {
+    PREFIX,
+    CONTAINS,
+    FUZZY;
+
+    public static SearchMode from(String mode) {
+        for (SearchMode searchMode : values()) {
+            if (searchMode.name().equalsIgnoreCase(mode)) {
+                return searchMode;
+            }
+        }
+        throw new InvalidDeviceParameter("Unsupported search mode: " + mode);
+    }
+}
@@ -0,0 +1,7 @@
+package one.global.api.domain.enums;
+
+public enum TransitionOutcome {
+    CHANGED,
+    UNCHANGED,
+    NOT_FOUND
+}
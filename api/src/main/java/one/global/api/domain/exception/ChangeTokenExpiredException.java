@@ -0,0 +1,12 @@
+package one.global.api.domain.exception;
+
+public class ChangeTokenExpiredException extends RuntimeException {
+
+    public ChangeTokenExpiredException(String message) {
+        super(message);
+    }
+
+    public ChangeTokenExpiredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
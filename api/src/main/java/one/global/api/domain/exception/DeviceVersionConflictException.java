@@ -0,0 +1,12 @@
+package one.global.api.domain.exception;
+
+public class DeviceVersionConflictException extends RuntimeException {
+
+    public DeviceVersionConflictException(String message) {
+        super(message);
+    }
+
+    public DeviceVersionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
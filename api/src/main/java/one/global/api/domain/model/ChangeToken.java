@@ -0,0 +1,19 @@
+package one.global.api.domain.model;
+
+/*
+ * Position in the change feed: the writing transaction's id and the change sequence within the feed order. The epoch
+ * names the store that handed the token out when positions do not outlive it (the in-memory store numbers changes
+ * anew on every start); the database keeps its positions and uses epoch 0.
+ */
+public record ChangeToken(long epoch, long xid, long seq) {
+
+    public static final ChangeToken START = new ChangeToken(0, 0, 0);
+
+    public ChangeToken(long xid, long seq) {
+        this(0, xid, seq);
+    }
+
+    public boolean isBefore(ChangeToken other) {
+        return xid < other.xid || xid == other.xid && seq < other.seq;
+    }
+}
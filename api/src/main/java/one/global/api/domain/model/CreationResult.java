@@ -0,0 +1,10 @@
+package one.global.api.domain.model;
+
+import java.util.List;
+
+/*Devices saved by a batch creation, and the ones refused with their position in the batch.*/
+public record CreationResult(List<Device> created, List<Rejection> rejected) {
+
+    public record Rejection(int index, String code, String description) {
+    }
+}
@@ -0,0 +1,6 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.DeletionOutcome;
+
+public record DeletionResult(Long id, DeletionOutcome outcome) {
+}
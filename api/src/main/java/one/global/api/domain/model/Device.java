@@ -5,7 +5,9 @@ import one.global.api.domain.exception.DeviceInUseException;
 import one.global.api.domain.exception.InvalidDeviceParameter;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Set;
 
 public class Device {
     private Long id;
@@ -13,6 +15,7 @@ public class Device {
     private String brand;
     private State state;
     private final LocalDateTime creationDate;
+    private Long version;
 
     public Device(String name, String brand) {
         if (name != null && !name.isBlank()) this.name = name;
@@ -21,16 +24,22 @@ public class Device {
         this.creationDate = LocalDateTime.now();
     }
 
-    private Device(Long id, String name, String brand, State state, LocalDateTime creationDate) {
+    private Device(Long id, String name, String brand, State state, LocalDateTime creationDate, Long version) {
         this.id = id;
         this.name = name;
         this.brand = brand;
         this.state = state;
         this.creationDate = creationDate;
+        this.version = version;
     }
 
     public static Device reconstruct(Long id, String name, String brand, String state, LocalDateTime creationDate) {
-        return new Device(id, name, brand, State.valueOf(state), creationDate);
+        return reconstruct(id, name, brand, state, creationDate, null);
+    }
+
+    public static Device reconstruct(Long id, String name, String brand, String state, LocalDateTime creationDate,
+                                     Long version) {
+        return new Device(id, name, brand, State.valueOf(state), creationDate, version);
     }
 
     public void changeState(State newState) {
@@ -41,6 +50,11 @@ public class Device {
         this.state = newState;
     }
 
+    /*States a device may be deleted from; also enforced in SQL by conditional deletes.*/
+    public static Set<State> deletableStates() {
+        return EnumSet.complementOf(EnumSet.of(State.IN_USE));
+    }
+
     public void updateDetails(String name, String brand) {
         if (this.state == State.IN_USE ) {
             throw new DeviceInUseException("Cannot update name or brand: device is currently in use.");
@@ -57,7 +71,7 @@ public class Device {
     }
 
     public void ensureCanBeDeleted() {
-        if (this.state == State.IN_USE) {
+        if (!deletableStates().contains(this.state)) {
             throw new DeviceInUseException("Cannot delete device: it is currently in use.");
         }
     }
@@ -87,6 +101,10 @@ public class Device {
         return creationDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -0,0 +1,11 @@
+package one.global.api.domain.model;
+
+import java.time.LocalDateTime;
+
+/*The current state of a changed device, or a tombstone (no device) when it was deleted.*/
+public record DeviceChange(Long id, Device device, LocalDateTime changedAt) {
+
+    public boolean deleted() {
+        return device == null;
+    }
+}
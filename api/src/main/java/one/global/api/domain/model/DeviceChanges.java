@@ -0,0 +1,6 @@
+package one.global.api.domain.model;
+
+import java.util.List;
+
+public record DeviceChanges(List<DeviceChange> changes, ChangeToken nextToken, boolean hasMore) {
+}
@@ -0,0 +1,6 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.State;
+
+public record DeviceCount(String brand, State state, long count) {
+}
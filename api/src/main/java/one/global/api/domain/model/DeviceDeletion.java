@@ -0,0 +1,7 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.State;
+
+/*Device matched by a conditional delete, as it was before the statement, and whether it was removed.*/
+public record DeviceDeletion(Long id, String brand, State state, Long version, boolean deleted) {
+}
@@ -0,0 +1,11 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.DeviceEventType;
+import one.global.api.domain.enums.State;
+
+import java.time.LocalDateTime;
+
+/*A committed device change as read from the outbox; sequence orders events and doubles as the SSE event id.*/
+public record DeviceEvent(long sequence, DeviceEventType type, Long deviceId, String name, String brand, State state,
+                          State previousState, Long version, LocalDateTime occurredAt) {
+}
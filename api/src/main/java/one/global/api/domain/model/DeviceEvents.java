@@ -0,0 +1,6 @@
+package one.global.api.domain.model;
+
+import java.util.List;
+
+public record DeviceEvents(List<DeviceEvent> events, OutboxPosition next, boolean hasMore) {
+}
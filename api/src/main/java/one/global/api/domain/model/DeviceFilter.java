@@ -0,0 +1,29 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.State;
+import one.global.api.domain.exception.InvalidDeviceParameter;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/*List filters. Empty sets and null dates do not restrict; the date range is inclusive on both ends.*/
+public record DeviceFilter(Set<String> brands, Set<State> states, LocalDate createdFrom, LocalDate createdTo) {
+
+    public static final DeviceFilter NONE = new DeviceFilter(Set.of(), Set.of(), null, null);
+
+    public DeviceFilter {
+        brands = brands != null ? Set.copyOf(brands) : Set.of();
+        states = states != null ? Set.copyOf(states) : Set.of();
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new InvalidDeviceParameter("createdFrom must not be after createdTo");
+        }
+    }
+
+    public static DeviceFilter of(String brand, State state) {
+        return new DeviceFilter(brand != null ? Set.of(brand) : Set.of(), state != null ? Set.of(state) : Set.of(), null, null);
+    }
+
+    public boolean hasDateRange() {
+        return createdFrom != null || createdTo != null;
+    }
+}
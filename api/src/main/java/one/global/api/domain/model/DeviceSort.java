@@ -0,0 +1,23 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.DeviceSortKey;
+import one.global.api.domain.exception.InvalidDeviceParameter;
+
+public record DeviceSort(DeviceSortKey key, boolean descending) {
+
+    public static final DeviceSort DEFAULT = new DeviceSort(DeviceSortKey.ID, false);
+
+    /*Parses "key" or "key,asc|desc", e.g. "creationDate,desc".*/
+    public static DeviceSort from(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DEFAULT;
+        }
+        String[] parts = sort.split(",", 2);
+        DeviceSortKey key = DeviceSortKey.from(parts[0].strip());
+        String direction = parts.length > 1 ? parts[1].strip() : "asc";
+        if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+            throw new InvalidDeviceParameter("Unsupported sort direction: " + direction);
+        }
+        return new DeviceSort(key, direction.equalsIgnoreCase("desc"));
+    }
+}
@@ -0,0 +1,7 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.State;
+
+/*One row of a bulk state change: the state the device was in and whether the update was applied to it.*/
+public record DeviceStateChange(Long id, String brand, State previousState, boolean changed) {
+}
@@ -0,0 +1,8 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.State;
+
+import java.util.Map;
+
+public record DeviceSummary(long total, Map<State, Long> byState, Map<String, Map<State, Long>> byBrand) {
+}
@@ -0,0 +1,4 @@
+package one.global.api.domain.model;
+
+public record NewDevice(String name, String brand) {
+}
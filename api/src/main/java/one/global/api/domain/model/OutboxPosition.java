@@ -0,0 +1,7 @@
+package one.global.api.domain.model;
+
+/*Position of a reader in the outbox: the writing transaction's id and the event sequence, in commit order.*/
+public record OutboxPosition(long xid, long sequence) {
+
+    public static final OutboxPosition START = new OutboxPosition(0, 0);
+}
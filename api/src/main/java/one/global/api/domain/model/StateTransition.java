@@ -0,0 +1,11 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.State;
+
+/*Outcome of a conditional state change. device is null when the stored version was not the expected one.*/
+public record StateTransition(Device device, State previousState, Long previousVersion) {
+
+    public boolean applied() {
+        return device != null;
+    }
+}
@@ -0,0 +1,7 @@
+package one.global.api.domain.model;
+
+import one.global.api.domain.enums.State;
+import one.global.api.domain.enums.TransitionOutcome;
+
+public record TransitionResult(Long id, TransitionOutcome outcome, State previousState) {
+}
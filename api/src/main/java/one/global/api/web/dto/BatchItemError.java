@@ -0,0 +1,4 @@
+package one.global.api.web.dto;
+
+public record BatchItemError(int index, String code, String description) {
+}
@@ -0,0 +1,4 @@
+package one.global.api.web.dto;
+
+public record DeviceChangeDTO(Long id, boolean deleted, DeviceResponseDTO device, String changedAt) {
+}
@@ -0,0 +1,4 @@
+package one.global.api.web.dto;
+
+public record DeviceDeletionResponseDTO(Long id, String outcome) {
+}
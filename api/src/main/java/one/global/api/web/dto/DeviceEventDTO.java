@@ -0,0 +1,5 @@
+package one.global.api.web.dto;
+
+public record DeviceEventDTO(long sequence, String type, Long deviceId, String name, String brand, String state,
+                             String previousState, Long version, String occurredAt) {
+}
@@ -0,0 +1,53 @@
+package one.global.api.web.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import one.global.api.domain.model.Device;
+import one.global.api.web.json.DevicePageSerializer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/*
+ * Immutable envelope for device listings. Serialized by DevicePageSerializer straight from the domain objects, with
+ * the same JSON shape as AppResponse<List<DeviceResponseDTO>>, so a page needs no DTOs or parameter maps.
+ */
+@JsonSerialize(using = DevicePageSerializer.class)
+public record DevicePageResponse(
+        int status,
+        boolean success,
+        String message,
+        @ArraySchema(schema = @Schema(implementation = DeviceResponseDTO.class)) List<Device> content,
+        Pagination pagination) {
+
+    public enum PaginationType { OFFSET, SLICE, CURSOR }
+
+    public record Pagination(PaginationType type, int page, int size, long totalElements, int totalPages,
+                             boolean hasNext, String nextCursor) {
+    }
+
+    public static DevicePageResponse offset(String message, PaginatedResponse<Device> page) {
+        return ok(message, page.getContent(), new Pagination(PaginationType.OFFSET, page.getPageNumber(),
+                page.getPageSize(), page.getTotalElements(), page.getTotalPages(), page.isHasNext(), null));
+    }
+
+    public static DevicePageResponse slice(String message, PaginatedResponse<Device> page) {
+        return ok(message, page.getContent(), new Pagination(PaginationType.SLICE, page.getPageNumber(),
+                page.getPageSize(), 0, 0, page.isHasNext(), null));
+    }
+
+    public static DevicePageResponse cursor(String message, PaginatedResponse<Device> page) {
+        return ok(message, page.getContent(), new Pagination(PaginationType.CURSOR, 0,
+                page.getPageSize(), 0, 0, page.isHasNext(), page.getNextCursor()));
+    }
+
+    public ResponseEntity<DevicePageResponse> getResponseEntity() {
+        return ResponseEntity.status(status).body(this);
+    }
+
+    private static DevicePageResponse ok(String message, List<Device> content, Pagination pagination) {
+        return new DevicePageResponse(HttpStatus.OK.value(), true, message, content, pagination);
+    }
+}
@@ -0,0 +1,6 @@
+package one.global.api.web.dto;
+
+import java.util.List;
+
+public record DeviceStateTransitionDTO(List<Long> ids, String state) {
+}
@@ -0,0 +1,4 @@
+package one.global.api.web.dto;
+
+public record DeviceTransitionResponseDTO(Long id, String outcome, String previousState) {
+}
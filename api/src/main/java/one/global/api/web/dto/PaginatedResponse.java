@@ -8,6 +8,8 @@ public class PaginatedResponse<T> {
     private int pageSize;
     private long totalElements;
     private int totalPages;
+    private boolean hasNext;
+    private String nextCursor;
 
     public PaginatedResponse(List<T> content, int pageNumber, int pageSize, long totalElements, int totalPages) {
         this.content = content;
@@ -15,6 +17,14 @@ public class PaginatedResponse<T> {
         this.pageSize = pageSize;
         this.totalElements = totalElements;
         this.totalPages = totalPages;
+        this.hasNext = pageNumber + 1 < totalPages;
+    }
+
+    public PaginatedResponse(List<T> content, int pageSize, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.pageSize = pageSize;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
     }
 
     public List<T> getContent() {
@@ -56,4 +66,20 @@ public class PaginatedResponse<T> {
     public void setTotalPages(int totalPages) {
         this.totalPages = totalPages;
     }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
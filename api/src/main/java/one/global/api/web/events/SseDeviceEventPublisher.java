@@ -0,0 +1,108 @@
+package one.global.api.web.events;
+
+import lombok.extern.slf4j.Slf4j;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.application.port.out.DeviceEventPublisher;
+import one.global.api.domain.model.DeviceEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * In-process publisher behind GET /devices/events: every relayed batch is pushed to the connected Server-Sent Events
+ * clients. The relay only queues events; each client is written to by a virtual thread of its own, so a slow client
+ * never holds up the relay or the other clients. A client more than bufferSize events behind, or one that cannot be
+ * written to, is dropped; EventSource clients reconnect on their own.
+ */
+@Slf4j
+public class SseDeviceEventPublisher implements DeviceEventPublisher {
+
+    private final DeviceMapper deviceMapper;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public SseDeviceEventPublisher(DeviceMapper deviceMapper, Duration timeout, int bufferSize) {
+        this.deviceMapper = deviceMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> close(subscriber));
+        subscriber.sender = Thread.ofVirtual().name("device-events-sse").start(() -> drain(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<DeviceEvent> events) {
+        for (Subscriber subscriber : subscribers) {
+            for (DeviceEvent event : events) {
+                if (!subscriber.queue.offer(event)) {
+                    log.debug("Dropping device event subscriber more than {} events behind", bufferSize);
+                    subscriber.overflowed = true;
+                    close(subscriber);
+                    break;
+                }
+            }
+        }
+    }
+
+    /*Overridable for tests, which stand in a slow client here.*/
+    protected void send(SseEmitter emitter, DeviceEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.sequence()))
+                .name(event.type().name())
+                .data(deviceMapper.fromDeviceEventToDTO(event)));
+    }
+
+    /*The emitter is only ever written and completed here, so a client stuck in a write cannot block whoever drops it.*/
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                send(subscriber.emitter, subscriber.queue.take());
+            }
+        } catch (InterruptedException e) {
+            // closed by the client or dropped for falling behind
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping device event subscriber: {}", e.getMessage());
+            close(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        }
+        if (subscriber.overflowed) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.queue.clear();
+        Thread sender = subscriber.sender;
+        if (sender != null && sender != Thread.currentThread()) {
+            sender.interrupt();
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<DeviceEvent> queue;
+        private volatile Thread sender;
+        private volatile boolean overflowed;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<DeviceEvent> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -4,16 +4,22 @@ import io.micrometer.tracing.Tracer;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import one.global.api.domain.exception.ChangeTokenExpiredException;
 import one.global.api.domain.exception.CreateDeviceException;
 import one.global.api.domain.exception.DeviceInUseException;
 import one.global.api.domain.exception.DeviceNotFoundException;
+import one.global.api.domain.exception.DeviceVersionConflictException;
 import one.global.api.domain.exception.InvalidDeviceParameter;
+import one.global.api.domain.exception.ServiceBusyException;
 import one.global.api.web.dto.AppErrorResponse;
 import one.global.api.web.dto.AppResponse;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -91,6 +97,66 @@ public class DeviceExceptionHandler {
                 Collections.singletonList(error)).getResponseEntity();
     }
 
+    @ExceptionHandler(DeviceVersionConflictException.class)
+    public ResponseEntity<AppResponse<Object>> handleDeviceVersionConflictException(
+            DeviceVersionConflictException ex, WebRequest request) {
+        AppErrorResponse error = AppErrorResponse.builder()
+                .code("DEVICE_VERSION_MISMATCH")
+                .description(ex.getMessage())
+                .traceId(getTraceId())
+                .build();
+
+        log.warn("Precondition failed: {}", ex.getMessage());
+        return AppResponse.invalid("Precondition failed - device was modified", HttpStatus.PRECONDITION_FAILED,
+                Collections.singletonList(error)).getResponseEntity();
+    }
+
+    @ExceptionHandler(ChangeTokenExpiredException.class)
+    public ResponseEntity<AppResponse<Object>> handleChangeTokenExpiredException(
+            ChangeTokenExpiredException ex, WebRequest request) {
+        AppErrorResponse error = AppErrorResponse.builder()
+                .code("CHANGE_TOKEN_EXPIRED")
+                .description(ex.getMessage())
+                .traceId(getTraceId())
+                .build();
+
+        log.warn("Change token expired: {}", ex.getMessage());
+        return AppResponse.invalid("Change token expired - sync again from the start", HttpStatus.GONE,
+                Collections.singletonList(error)).getResponseEntity();
+    }
+
+    /*With If-Match the client named the version it expected, so losing the race is the same failed precondition.*/
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<AppResponse<Object>> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            return handleDeviceVersionConflictException(new DeviceVersionConflictException(
+                    "Device was modified after the If-Match version was read", ex), request);
+        }
+        AppErrorResponse error = AppErrorResponse.builder()
+                .code("DEVICE_VERSION_CONFLICT")
+                .description("Device was modified concurrently, reload it and retry")
+                .traceId(getTraceId())
+                .build();
+
+        log.warn("Concurrent device modification: {}", ex.getMessage());
+        return AppResponse.invalid("Conflict: concurrent modification", HttpStatus.CONFLICT,
+                Collections.singletonList(error)).getResponseEntity();
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<AppResponse<Object>> handleServiceBusyException(
+            ServiceBusyException ex, WebRequest request) {
+        AppErrorResponse error = AppErrorResponse.builder()
+                .code("SERVICE_BUSY")
+                .description(ex.getMessage())
+                .traceId(getTraceId())
+                .build();
+
+        log.warn("Service busy: {}", ex.getMessage());
+        return AppResponse.invalid("Service busy - retry later", HttpStatus.SERVICE_UNAVAILABLE,
+                Collections.singletonList(error)).getResponseEntity();
+    }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -182,6 +248,20 @@ public class DeviceExceptionHandler {
                 Collections.singletonList(error)).getResponseEntity();
     }
 
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<AppResponse<Object>> handleHttpMediaTypeNotAcceptableException(
+            HttpMediaTypeNotAcceptableException ex, WebRequest request) {
+        AppErrorResponse error = AppErrorResponse.builder()
+                .code("NOT_ACCEPTABLE")
+                .description("Response available as: " + ex.getSupportedMediaTypes())
+                .traceId(getTraceId())
+                .build();
+
+        log.warn("Not acceptable: {}", request.getHeader(HttpHeaders.ACCEPT));
+        return AppResponse.invalid("Not acceptable", HttpStatus.NOT_ACCEPTABLE,
+                Collections.singletonList(error)).getResponseEntity();
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<AppResponse<Object>> handleDataIntegrityViolation(
             DataIntegrityViolationException ex, WebRequest request) {
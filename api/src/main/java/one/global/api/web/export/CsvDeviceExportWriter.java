@@ -0,0 +1,50 @@
+package one.global.api.web.export;
+
+import one.global.api.web.dto.DeviceResponseDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public class CsvDeviceExportWriter implements DeviceExportWriter {
+
+    private static final String HEADER = "id,name,brand,state,creationDate\n";
+
+    private final Writer writer;
+
+    public CsvDeviceExportWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        this.writer.write(HEADER);
+    }
+
+    @Override
+    public void write(DeviceResponseDTO device) throws IOException {
+        writer.write(String.valueOf(device.id()));
+        writer.write(',');
+        writeField(device.name());
+        writer.write(',');
+        writeField(device.brand());
+        writer.write(',');
+        writeField(device.state());
+        writer.write(',');
+        writeField(device.creationDate());
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,13 @@
+package one.global.api.web.export;
+
+import one.global.api.web.dto.DeviceResponseDTO;
+
+import java.io.IOException;
+
+public interface DeviceExportWriter extends AutoCloseable {
+
+    void write(DeviceResponseDTO device) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
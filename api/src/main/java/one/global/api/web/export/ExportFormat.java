@@ -0,0 +1,45 @@
+package one.global.api.web.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.global.api.domain.exception.InvalidDeviceParameter;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public enum ExportFormat {
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+    CSV("csv", MediaType.parseMediaType("text/csv"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public DeviceExportWriter open(Writer writer, ObjectMapper objectMapper) throws IOException {
+        return switch (this) {
+            case NDJSON -> new NdjsonDeviceExportWriter(writer, objectMapper);
+            case CSV -> new CsvDeviceExportWriter(writer);
+        };
+    }
+
+    public static ExportFormat from(String format) {
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.extension.equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new InvalidDeviceParameter("Unsupported export format: " + format);
+    }
+}
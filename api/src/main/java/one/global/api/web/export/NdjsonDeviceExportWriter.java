@@ -0,0 +1,33 @@
+package one.global.api.web.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import one.global.api.web.dto.DeviceResponseDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public class NdjsonDeviceExportWriter implements DeviceExportWriter {
+
+    private final Writer writer;
+    private final SequenceWriter sequenceWriter;
+
+    public NdjsonDeviceExportWriter(Writer writer, ObjectMapper objectMapper) throws IOException {
+        this.writer = writer;
+        this.sequenceWriter = objectMapper.writerFor(DeviceResponseDTO.class)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+    }
+
+    @Override
+    public void write(DeviceResponseDTO device) throws IOException {
+        sequenceWriter.write(device);
+    }
+
+    @Override
+    public void close() throws IOException {
+        sequenceWriter.flush();
+        writer.write('\n');
+        writer.flush();
+    }
+}
@@ -0,0 +1,117 @@
+package one.global.api.web.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import one.global.api.domain.model.Device;
+import one.global.api.web.dto.DevicePageResponse;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class DevicePageSerializer extends StdSerializer<DevicePageResponse> {
+
+    private static final int DATE_LENGTH = "yyyy-MM-dd HH:mm:ss".length();
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public DevicePageSerializer() {
+        super(DevicePageResponse.class);
+    }
+
+    @Override
+    public void serialize(DevicePageResponse response, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("status", response.status());
+        gen.writeBooleanField("success", response.success());
+        if (response.message() != null) {
+            gen.writeStringField("message", response.message());
+        }
+
+        if (response.content() != null) {
+            char[] date = new char[DATE_LENGTH];
+            gen.writeArrayFieldStart("content");
+            for (Device device : response.content()) {
+                writeDevice(device, date, gen);
+            }
+            gen.writeEndArray();
+        }
+
+        if (response.pagination() != null) {
+            gen.writeObjectFieldStart("parameters");
+            writePagination(response.pagination(), gen);
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeDevice(Device device, char[] date, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        if (device.getId() != null) {
+            gen.writeNumberField("id", device.getId());
+        } else {
+            gen.writeNullField("id");
+        }
+        gen.writeStringField("name", device.getName());
+        gen.writeStringField("brand", device.getBrand());
+        gen.writeStringField("state", device.getState() != null ? device.getState().name() : null);
+        gen.writeFieldName("creationDate");
+        writeDate(device.getCreationDate(), date, gen);
+        gen.writeEndObject();
+    }
+
+    private void writePagination(DevicePageResponse.Pagination pagination, JsonGenerator gen) throws IOException {
+        gen.writeObjectFieldStart("pagination");
+        switch (pagination.type()) {
+            case OFFSET -> {
+                gen.writeNumberField("page", pagination.page());
+                gen.writeNumberField("size", pagination.size());
+                gen.writeNumberField("totalElements", pagination.totalElements());
+                gen.writeNumberField("totalPages", pagination.totalPages());
+            }
+            case SLICE -> {
+                gen.writeNumberField("page", pagination.page());
+                gen.writeNumberField("size", pagination.size());
+                gen.writeBooleanField("hasNext", pagination.hasNext());
+            }
+            case CURSOR -> {
+                gen.writeNumberField("size", pagination.size());
+                gen.writeBooleanField("hasNext", pagination.hasNext());
+                gen.writeStringField("nextCursor", pagination.nextCursor());
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    /*Same output as the mapper's "yyyy-MM-dd HH:mm:ss" dateFormat, written into a reused buffer.*/
+    private void writeDate(LocalDateTime dateTime, char[] date, JsonGenerator gen) throws IOException {
+        if (dateTime == null) {
+            gen.writeNull();
+            return;
+        }
+        if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+            gen.writeString(DATE_FORMATTER.format(dateTime));
+            return;
+        }
+        writeDigits(date, 0, dateTime.getYear(), 4);
+        date[4] = '-';
+        writeDigits(date, 5, dateTime.getMonthValue(), 2);
+        date[7] = '-';
+        writeDigits(date, 8, dateTime.getDayOfMonth(), 2);
+        date[10] = ' ';
+        writeDigits(date, 11, dateTime.getHour(), 2);
+        date[13] = ':';
+        writeDigits(date, 14, dateTime.getMinute(), 2);
+        date[16] = ':';
+        writeDigits(date, 17, dateTime.getSecond(), 2);
+        gen.writeString(date, 0, DATE_LENGTH);
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package one.global.api.web.proto;
+
+import com.google.protobuf.Message;
+import one.global.api.domain.model.Device;
+import one.global.api.web.dto.AppErrorResponse;
+import one.global.api.web.dto.AppResponse;
+import one.global.api.web.dto.DevicePageResponse;
+import one.global.api.web.dto.DeviceResponseDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ * Writes device responses as the messages of device.proto: DevicePageResponse and AppResponse<List<DeviceResponseDTO>>
+ * as DeviceListResponse, AppResponse<DeviceResponseDTO> and responses without content as DeviceResponse. Other
+ * responses are not offered in Protobuf. Response only; requests are still read as JSON, CBOR or Smile.
+ */
+public class DeviceProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    static final String MESSAGE_HEADER = "X-Protobuf-Message";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public DeviceProtobufHttpMessageConverter() {
+        super(ProtobufHttpMessageConverter.PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DevicePageResponse.class.isAssignableFrom(clazz) || AppResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType response = ResolvableType.forType(type != null ? type : clazz);
+        if (DevicePageResponse.class.isAssignableFrom(response.toClass())) {
+            return true;
+        }
+        ResolvableType content = response.as(AppResponse.class).getGeneric(0);
+        Class<?> contentClass = content.toClass();
+        return contentClass == Object.class
+                || contentClass == DeviceResponseDTO.class
+                || (List.class.isAssignableFrom(contentClass)
+                && content.asCollection().getGeneric(0).toClass() == DeviceResponseDTO.class);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Message message = toMessage(body);
+        outputMessage.getHeaders().set(MESSAGE_HEADER, message.getDescriptorForType().getFullName());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    public static Message toMessage(Object body) {
+        if (body instanceof DevicePageResponse page) {
+            return toMessage(page);
+        }
+        if (body instanceof AppResponse<?> response) {
+            return toMessage(response);
+        }
+        throw new HttpMessageNotWritableException("No Protobuf message for " + body.getClass().getName());
+    }
+
+    private static DeviceProtos.DeviceListResponse toMessage(DevicePageResponse page) {
+        var message = DeviceProtos.DeviceListResponse.newBuilder()
+                .setStatus(page.status())
+                .setSuccess(page.success());
+        if (page.message() != null) {
+            message.setMessage(page.message());
+        }
+        if (page.content() != null) {
+            for (Device device : page.content()) {
+                message.addContent(toMessage(device));
+            }
+        }
+        if (page.pagination() != null) {
+            message.setPagination(toMessage(page.pagination()));
+        }
+        return message.build();
+    }
+
+    private static Message toMessage(AppResponse<?> response) {
+        Object content = response.getContent();
+        if (content instanceof List<?> devices) {
+            var message = DeviceProtos.DeviceListResponse.newBuilder()
+                    .setStatus(response.getStatus())
+                    .setSuccess(Boolean.TRUE.equals(response.getSuccess()));
+            if (response.getMessage() != null) {
+                message.setMessage(response.getMessage());
+            }
+            if (response.getErrors() != null) {
+                response.getErrors().forEach(error -> message.addErrors(toMessage(error)));
+            }
+            for (Object device : devices) {
+                message.addContent(toMessage((DeviceResponseDTO) device));
+            }
+            return message.build();
+        }
+        if (content != null && !(content instanceof DeviceResponseDTO)) {
+            throw new HttpMessageNotWritableException("No Protobuf message for " + content.getClass().getName());
+        }
+        var message = DeviceProtos.DeviceResponse.newBuilder()
+                .setStatus(response.getStatus())
+                .setSuccess(Boolean.TRUE.equals(response.getSuccess()));
+        if (response.getMessage() != null) {
+            message.setMessage(response.getMessage());
+        }
+        if (response.getErrors() != null) {
+            response.getErrors().forEach(error -> message.addErrors(toMessage(error)));
+        }
+        if (content != null) {
+            message.setContent(toMessage((DeviceResponseDTO) content));
+        }
+        return message.build();
+    }
+
+    private static DeviceProtos.Device toMessage(Device device) {
+        var message = DeviceProtos.Device.newBuilder();
+        if (device.getId() != null) {
+            message.setId(device.getId());
+        }
+        setIfPresent(device.getName(), message::setName);
+        setIfPresent(device.getBrand(), message::setBrand);
+        if (device.getState() != null) {
+            message.setState(device.getState().name());
+        }
+        if (device.getCreationDate() != null) {
+            message.setCreationDate(DATE_FORMATTER.format(device.getCreationDate()));
+        }
+        return message.build();
+    }
+
+    private static DeviceProtos.Device toMessage(DeviceResponseDTO device) {
+        var message = DeviceProtos.Device.newBuilder();
+        if (device.id() != null) {
+            message.setId(device.id());
+        }
+        setIfPresent(device.name(), message::setName);
+        setIfPresent(device.brand(), message::setBrand);
+        setIfPresent(device.state(), message::setState);
+        setIfPresent(device.creationDate(), message::setCreationDate);
+        return message.build();
+    }
+
+    private static DeviceProtos.Pagination toMessage(DevicePageResponse.Pagination pagination) {
+        var message = DeviceProtos.Pagination.newBuilder().setSize(pagination.size());
+        switch (pagination.type()) {
+            case OFFSET -> message.setPage(pagination.page())
+                    .setTotalElements(pagination.totalElements())
+                    .setTotalPages(pagination.totalPages());
+            case SLICE -> message.setPage(pagination.page())
+                    .setHasNext(pagination.hasNext());
+            case CURSOR -> {
+                message.setHasNext(pagination.hasNext());
+                setIfPresent(pagination.nextCursor(), message::setNextCursor);
+            }
+        }
+        return message.build();
+    }
+
+    private static DeviceProtos.Error toMessage(AppErrorResponse error) {
+        var message = DeviceProtos.Error.newBuilder();
+        setIfPresent(error.getCode(), message::setCode);
+        setIfPresent(error.getDescription(), message::setDescription);
+        setIfPresent(error.getTraceId(), message::setTraceId);
+        return message.build();
+    }
+
+    /*Protobuf strings cannot be null; an absent value stays at the default.*/
+    private static void setIfPresent(String value, Consumer<String> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package one.global.api.web.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import one.global.api.application.port.out.DataSourceRouter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/*
+ * Tells the DataSourceRouter which client a request comes from, so that client reads its own writes. Only the
+ * X-Client-Id header names one: a remote address is shared by every caller behind the same proxy or load balancer.
+ */
+public class ClientIdFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    private final DataSourceRouter dataSourceRouter;
+
+    public ClientIdFilter(DataSourceRouter dataSourceRouter) {
+        this.dataSourceRouter = dataSourceRouter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = request.getHeader(CLIENT_HEADER);
+        dataSourceRouter.setCurrentClient(client != null && !client.isBlank() ? client : null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            dataSourceRouter.setCurrentClient(null);
+        }
+    }
+}
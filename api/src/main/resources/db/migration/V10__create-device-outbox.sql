@@ -0,0 +1,14 @@
+-- Device change events, written in the same transaction as the change and removed by the relay once published.
+-- Rows are only inserted by SQL (see JpaDeviceOutboxRepository and the device CTEs), so a plain identity is enough.
+CREATE TABLE device_outbox
+(
+    id             BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    device_id      BIGINT      NOT NULL,
+    event_type     VARCHAR(20) NOT NULL,
+    name           VARCHAR(50),
+    brand          VARCHAR(50),
+    state          VARCHAR(50),
+    previous_state VARCHAR(50),
+    version        BIGINT,
+    occurred_at    TIMESTAMP   NOT NULL DEFAULT now()
+);
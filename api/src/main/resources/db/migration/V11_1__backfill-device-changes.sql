@@ -0,0 +1,44 @@
+-- Stamps the rows that predate V11 and makes the change columns NOT NULL without holding a long lock on device.
+-- Runs outside a transaction (see V11_1__backfill-device-changes.sql.conf): each batch of ids commits on its own,
+-- so row locks are held for one batch at a time. Rows inserted meanwhile are stamped by the V11 triggers.
+-- Interrupted runs are safe to repeat: the backfill skips stamped rows and leftover checks are dropped and re-added.
+DO
+$$
+DECLARE
+    last_id BIGINT := 0;
+    max_id  BIGINT;
+BEGIN
+    SELECT coalesce(max(id), 0) INTO max_id FROM device;
+    WHILE last_id < max_id LOOP
+        UPDATE device
+        SET change_xid = pg_current_xact_id(), change_seq = nextval('device_change_seq'), updated_at = now()
+        WHERE id > last_id AND id <= last_id + 5000 AND change_xid IS NULL;
+        last_id := last_id + 5000;
+        COMMIT;
+    END LOOP;
+END
+$$;
+
+-- NOT VALID only takes a brief lock; VALIDATE then scans under a lock that lets reads and writes through, and
+-- SET NOT NULL reuses the validated checks instead of scanning again (PostgreSQL 12+).
+ALTER TABLE device
+    DROP CONSTRAINT IF EXISTS device_change_xid_not_null,
+    DROP CONSTRAINT IF EXISTS device_change_seq_not_null,
+    DROP CONSTRAINT IF EXISTS device_updated_at_not_null,
+    ADD CONSTRAINT device_change_xid_not_null CHECK (change_xid IS NOT NULL) NOT VALID,
+    ADD CONSTRAINT device_change_seq_not_null CHECK (change_seq IS NOT NULL) NOT VALID,
+    ADD CONSTRAINT device_updated_at_not_null CHECK (updated_at IS NOT NULL) NOT VALID;
+
+ALTER TABLE device VALIDATE CONSTRAINT device_change_xid_not_null;
+ALTER TABLE device VALIDATE CONSTRAINT device_change_seq_not_null;
+ALTER TABLE device VALIDATE CONSTRAINT device_updated_at_not_null;
+
+ALTER TABLE device
+    ALTER COLUMN change_xid SET NOT NULL,
+    ALTER COLUMN change_seq SET NOT NULL,
+    ALTER COLUMN updated_at SET NOT NULL;
+
+ALTER TABLE device
+    DROP CONSTRAINT device_change_xid_not_null,
+    DROP CONSTRAINT device_change_seq_not_null,
+    DROP CONSTRAINT device_updated_at_not_null;
@@ -0,0 +1,54 @@
+-- Change tracking for the incremental sync feed (GET /devices/changes). Every insert or real update stamps the row
+-- with the writing transaction (change_xid) and a sequence number; deletes leave a tombstone with the same stamps.
+-- The feed orders by (change_xid, change_seq) and only reads below the oldest running transaction, so a change that
+-- commits late can never fall behind a token already handed out. Triggers keep JPA and native writes alike.
+-- The columns start out nullable, so adding them does not rewrite the table; the triggers stamp every row written
+-- from here on and V11_1 backfills the existing ones before making them NOT NULL.
+CREATE SEQUENCE device_change_seq;
+
+ALTER TABLE device
+    ADD COLUMN change_xid XID8,
+    ADD COLUMN change_seq BIGINT,
+    ADD COLUMN updated_at TIMESTAMP;
+
+CREATE TABLE device_tombstone
+(
+    device_id  BIGINT PRIMARY KEY,
+    change_xid XID8      NOT NULL,
+    change_seq BIGINT    NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX device_tombstone_change_idx ON device_tombstone (change_xid, change_seq);
+
+CREATE FUNCTION device_stamp_change() RETURNS TRIGGER AS
+$$
+BEGIN
+    NEW.change_xid := pg_current_xact_id();
+    NEW.change_seq := nextval('device_change_seq');
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION device_record_tombstone() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO device_tombstone (device_id, change_xid, change_seq, deleted_at)
+    VALUES (OLD.id, pg_current_xact_id(), nextval('device_change_seq'), now());
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER device_stamp_insert
+    BEFORE INSERT ON device
+    FOR EACH ROW EXECUTE FUNCTION device_stamp_change();
+
+-- Rewriting a row with the same values (e.g. setting the state it already has) is not a change.
+CREATE TRIGGER device_stamp_update
+    BEFORE UPDATE ON device
+    FOR EACH ROW WHEN (OLD.* IS DISTINCT FROM NEW.*) EXECUTE FUNCTION device_stamp_change();
+
+CREATE TRIGGER device_tombstone_delete
+    AFTER DELETE ON device
+    FOR EACH ROW EXECUTE FUNCTION device_record_tombstone();
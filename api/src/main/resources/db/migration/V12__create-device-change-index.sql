@@ -0,0 +1,5 @@
+-- Serves the change feed in (change_xid, change_seq) order, built CONCURRENTLY like V3
+-- (see V12__create-device-change-index.sql.conf).
+-- Same recovery as V3 if a build is interrupted: DROP INDEX CONCURRENTLY, flyway repair, migrate.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS device_change_idx ON device (change_xid, change_seq);
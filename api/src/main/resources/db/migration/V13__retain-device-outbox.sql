@@ -0,0 +1,9 @@
+-- The outbox becomes a log that every instance reads with its own position instead of rows one relay claims and
+-- deletes, so SSE subscribers of every instance see every event. Like the change feed (V11), events are read in
+-- (change_xid, id) order below the oldest running transaction, so one that commits late cannot fall behind a position
+-- already passed. Rows are removed by age (device.events.retention) once every instance has had time to read them.
+ALTER TABLE device_outbox
+    ADD COLUMN change_xid XID8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX device_outbox_change_idx ON device_outbox (change_xid, id);
+CREATE INDEX device_outbox_occurred_at_idx ON device_outbox (occurred_at);
@@ -0,0 +1,12 @@
+-- Tombstones are removed by age (device.changes.tombstone-retention). The newest (change_xid, change_seq) removed so
+-- far is kept as the floor of the change feed: a token below it may have missed a deletion and has to sync again.
+CREATE TABLE device_change_floor
+(
+    id         BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    change_xid XID8   NOT NULL,
+    change_seq BIGINT NOT NULL
+);
+
+INSERT INTO device_change_floor (id, change_xid, change_seq) VALUES (TRUE, '0', 0);
+
+CREATE INDEX device_tombstone_deleted_at_idx ON device_tombstone (deleted_at);
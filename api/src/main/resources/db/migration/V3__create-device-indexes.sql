@@ -0,0 +1,19 @@
+-- Indexes for the device access paths, built CONCURRENTLY so they can be applied to a live table
+-- without blocking writes. CREATE INDEX CONCURRENTLY cannot run inside a transaction, so this
+-- script runs outside of one (see V3__create-device-indexes.sql.conf) and must only contain
+-- concurrent index builds.
+--
+-- If a build is interrupted the index is left INVALID and IF NOT EXISTS would skip it on retry:
+-- drop it (DROP INDEX CONCURRENTLY <name>), run flyway repair and migrate again.
+
+-- Backs the primary key added in V4 (findById, updates and deletes by id, unfiltered keyset paging).
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS device_id_uidx ON device (id);
+
+-- Brand (+ state) filters, ordered by id for keyset pagination.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS device_brand_state_id_idx ON device (brand, state, id);
+
+-- State-only filters, ordered by id for keyset pagination.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS device_state_id_idx ON device (state, id);
+
+-- Devices currently in use are a small, hot subset (delete/update guards, in-use listings).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS device_in_use_idx ON device (brand, id) WHERE state = 'IN_USE';
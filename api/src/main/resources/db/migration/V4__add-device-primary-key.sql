@@ -0,0 +1,3 @@
+-- Promotes the unique index built concurrently in V3 to the primary key. Reusing the existing index
+-- only needs a brief ACCESS EXCLUSIVE lock instead of a full index build under lock.
+ALTER TABLE device ADD CONSTRAINT device_pkey PRIMARY KEY USING INDEX device_id_uidx;
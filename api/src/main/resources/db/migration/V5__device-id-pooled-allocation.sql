@@ -0,0 +1,4 @@
+-- Hibernate now draws device ids from the identity sequence with a pooled optimizer (allocationSize = 100),
+-- one nextval per 100 inserted rows, so JDBC insert batching is no longer disabled by IDENTITY generation.
+-- The increment must match the allocationSize of JpaDeviceEntity.
+ALTER TABLE device ALTER COLUMN id SET INCREMENT BY 100;
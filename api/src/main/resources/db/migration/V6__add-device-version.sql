@@ -0,0 +1,2 @@
+-- Optimistic locking counter. A constant default is a catalog-only change on Postgres 11+, so no table rewrite.
+ALTER TABLE device ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
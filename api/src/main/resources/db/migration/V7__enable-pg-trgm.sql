@@ -0,0 +1,3 @@
+-- Trigram matching for device search. pg_trgm is a trusted extension (Postgres 13+), so the database owner can
+-- create it without superuser rights.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
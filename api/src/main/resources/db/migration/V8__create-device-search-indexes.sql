@@ -0,0 +1,8 @@
+-- Trigram GIN indexes for device search, built CONCURRENTLY like V3 (see V8__create-device-search-indexes.sql.conf).
+-- gin_trgm_ops serves ILIKE '%term%' / 'term%' as well as the word similarity operator (<%), and trigrams are
+-- lower-cased, so no lower() expression index is needed for case-insensitive matching.
+-- Same recovery as V3 if a build is interrupted: DROP INDEX CONCURRENTLY, flyway repair, migrate.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS device_name_trgm_idx ON device USING gin (name gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS device_brand_trgm_idx ON device USING gin (brand gin_trgm_ops);
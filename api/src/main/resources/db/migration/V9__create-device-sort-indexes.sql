@@ -0,0 +1,8 @@
+-- Indexes for the sort keys and creation date ranges of the list endpoint, built CONCURRENTLY like V3
+-- (see V9__create-device-sort-indexes.sql.conf). Both end in id, the tie-breaker appended to every sort, so a
+-- page is read in index order without sorting the filtered rows. Brand sorts use device_brand_state_id_idx.
+-- Same recovery as V3 if a build is interrupted: DROP INDEX CONCURRENTLY, flyway repair, migrate.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS device_creation_date_id_idx ON device (creation_date, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS device_name_id_idx ON device (name, id);
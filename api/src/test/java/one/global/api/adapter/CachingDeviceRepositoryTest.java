@@ -0,0 +1,108 @@
+package one.global.api.adapter;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import one.global.api.adapter.out.cache.CachingDeviceRepository;
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.Device;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDeviceRepositoryTest {
+
+    @Mock
+    private DeviceRepository delegate;
+
+    private CachingDeviceRepository cachingDeviceRepository;
+
+    private Device device;
+
+    @BeforeEach
+    void setUp() {
+        cachingDeviceRepository = new CachingDeviceRepository(delegate,
+                Caffeine.newBuilder().maximumSize(100).expireAfterWrite(Duration.ofMinutes(1)).build());
+        device = new Device("Device1", "BrandA");
+        device.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Should load a device once and serve further lookups from the cache")
+    void findById_ShouldHitDelegateOnlyOnce() {
+        when(delegate.findById(1L)).thenReturn(device);
+
+        Device first = cachingDeviceRepository.findById(1L);
+        Device second = cachingDeviceRepository.findById(1L);
+
+        assertEquals("Device1", first.getName());
+        assertEquals("Device1", second.getName());
+        verify(delegate, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should not cache devices that were not found")
+    void findById_ShouldNotCacheMisses() {
+        when(delegate.findById(99L)).thenReturn(null);
+
+        assertNull(cachingDeviceRepository.findById(99L));
+        assertNull(cachingDeviceRepository.findById(99L));
+
+        verify(delegate, times(2)).findById(99L);
+    }
+
+    @Test
+    @DisplayName("Should hand out copies so callers cannot change the cached device")
+    void findById_ShouldReturnCopies() {
+        when(delegate.findById(1L)).thenReturn(device);
+
+        cachingDeviceRepository.findById(1L).changeState(State.IN_USE);
+
+        assertEquals(State.AVAILABLE, cachingDeviceRepository.findById(1L).getState());
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached device when it is saved")
+    void save_ShouldInvalidateCachedDevice() {
+        when(delegate.findById(1L)).thenReturn(device);
+        when(delegate.save(device)).thenReturn(device);
+
+        cachingDeviceRepository.findById(1L);
+        cachingDeviceRepository.save(device);
+        cachingDeviceRepository.findById(1L);
+
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached device when it is deleted")
+    void delete_ShouldInvalidateCachedDevice() {
+        when(delegate.findById(1L)).thenReturn(device).thenReturn(null);
+
+        cachingDeviceRepository.findById(1L);
+        cachingDeviceRepository.delete(1L, Device.deletableStates(), null);
+
+        assertNull(cachingDeviceRepository.findById(1L));
+        verify(delegate).delete(1L, Device.deletableStates(), null);
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached device when its state is changed in place")
+    void transitionState_ShouldInvalidateCachedDevice() {
+        when(delegate.findById(1L)).thenReturn(device);
+
+        cachingDeviceRepository.findById(1L);
+        cachingDeviceRepository.transitionState(1L, State.IN_USE, null);
+        cachingDeviceRepository.findById(1L);
+
+        verify(delegate, times(2)).findById(1L);
+    }
+}
@@ -0,0 +1,242 @@
+package one.global.api.adapter;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import one.global.api.adapter.out.persistence.DeviceRespositoryAdapter;
+import one.global.api.domain.enums.DeviceSortKey;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.ChangeToken;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Runs the adapter calls the endpoints make, records the statements Hibernate sends, and EXPLAINs each of them with
+ * the same parameters. The table is seeded large enough that the planner has to choose an index on its own.
+ */
+@SpringBootTest
+@Testcontainers
+@DisplayName("Device table index usage")
+class DeviceIndexUsageTest {
+
+    private static final int DEVICES = 100_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DeviceRespositoryAdapter deviceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        Long seeded = jdbcTemplate.queryForObject("SELECT count(*) FROM device", Long.class);
+        if (seeded == null || seeded < DEVICES) {
+            jdbcTemplate.update("TRUNCATE TABLE device, device_outbox, device_tombstone RESTART IDENTITY");
+            // hashed names share few trigrams, as real names do; md5('4242') starts with fe7ecc4de28b
+            jdbcTemplate.update("""
+                    INSERT INTO device (id, name, brand, state, creation_date)
+                    SELECT g, substr(md5(g::text), 1, 12), 'Brand' || (g % 50),
+                           (ARRAY['AVAILABLE', 'IN_USE', 'INACTIVE'])[1 + g % 3], now() - g * interval '1 minute'
+                    FROM generate_series(1, ?) g
+                    """, DEVICES);
+            // ids are given explicitly so the cases below can name them; new devices continue after them
+            jdbcTemplate.queryForObject("SELECT setval('device_id_seq', ?)", Long.class, DEVICES + 100L);
+            jdbcTemplate.execute("ANALYZE device");
+        }
+        // cached rows and lists would answer without a statement to explain
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    static Stream<Arguments> adapterCalls() {
+        DeviceFilter brandAndState = new DeviceFilter(Set.of("Brand7"), Set.of(State.AVAILABLE), null, null);
+        DeviceFilter lastWeek = new DeviceFilter(Set.of(), Set.of(), LocalDate.now().minusDays(7), null);
+        DeviceSort byId = DeviceSort.DEFAULT;
+        return Stream.of(
+                call("findById", "device_pkey", repository -> repository.findById(42L)),
+                call("findSlice by brand and state", "device_brand_state_id_idx",
+                        repository -> repository.findSlice(brandAndState, byId, 2, 10)),
+                call("count by brand and state", "device_brand_state_id_idx",
+                        repository -> repository.count(brandAndState)),
+                call("findAllAfter by brand and state", "device_brand_state_id_idx",
+                        repository -> repository.findAllAfter(brandAndState, byId, 100L, 10)),
+                call("findAllAfter by brands and states", null, repository -> repository.findAllAfter(
+                        new DeviceFilter(Set.of("Brand7", "Brand8"), Set.of(State.AVAILABLE, State.INACTIVE), null, null),
+                        byId, null, 10)),
+                call("findAllAfter unfiltered", "device_pkey",
+                        repository -> repository.findAllAfter(DeviceFilter.NONE, byId, 500L, 10)),
+                call("findSlice sorted by name", "device_name_id_idx",
+                        repository -> repository.findSlice(DeviceFilter.NONE, new DeviceSort(DeviceSortKey.NAME, true), 2, 10)),
+                call("findSlice created last week", "device_creation_date_id_idx",
+                        repository -> repository.findSlice(lastWeek, new DeviceSort(DeviceSortKey.CREATION_DATE, false), 0, 10)),
+                call("search contains", "trgm_idx", repository -> repository.search("ecc4de2", SearchMode.CONTAINS, 20)),
+                call("search prefix", "trgm_idx", repository -> repository.search("fe7ecc", SearchMode.PREFIX, 20)),
+                call("search fuzzy", "trgm_idx", repository -> repository.search("fe7ecc4de2b8", SearchMode.FUZZY, 20)),
+                call("findChanges", "device_change_idx", repository -> repository.findChanges(ChangeToken.START, 500)),
+                call("update", "device_pkey", repository -> repository.save(
+                        Device.reconstruct(43L, "Renamed 43", "Brand43", "AVAILABLE", null, 0L))),
+                call("transitionState", "device_pkey", repository -> repository.transitionState(44L, State.INACTIVE, null)),
+                call("transitionStates", "device_pkey", repository -> repository.transitionStates(List.of(45L, 46L),
+                        State.INACTIVE)),
+                call("delete", "device_pkey", repository -> repository.delete(47L, Set.of(State.AVAILABLE, State.INACTIVE), null)),
+                call("deleteAll", "device_pkey", repository -> repository.deleteAll(List.of(48L, 49L),
+                        Set.of(State.AVAILABLE, State.INACTIVE))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("adapterCalls")
+    @DisplayName("Statements sent by the adapter should read devices through an index")
+    void adapterStatements_ShouldUseIndexes(String call, String expectedIndex, Consumer<DeviceRespositoryAdapter> action) {
+        statementRecorder.reset();
+        action.accept(deviceRepository);
+        List<QueryInfo> statements = statementRecorder.deviceStatements();
+
+        assertThat(statements).as("statements sent by %s", call).isNotEmpty();
+        for (QueryInfo statement : statements) {
+            String plan = explain(statement);
+            assertThat(plan).as(plan).doesNotContainPattern("Seq Scan on device(?!_)");
+            if (expectedIndex != null) {
+                assertThat(plan).as(plan).contains(expectedIndex);
+            } else {
+                assertThat(plan).as(plan).contains("Index");
+            }
+        }
+    }
+
+    private static Arguments call(String name, String expectedIndex, Consumer<DeviceRespositoryAdapter> action) {
+        return Arguments.of(name, expectedIndex, action);
+    }
+
+    private String explain(QueryInfo statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getQuery())) {
+                if (!statement.getParametersList().isEmpty()) {
+                    for (ParameterSetOperation operation : statement.getParametersList().getFirst()) {
+                        operation.getMethod().invoke(explain, operation.getArgs());
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /*Keeps the statements (with their parameters) that read or write the device table.*/
+    static class StatementRecorder implements QueryExecutionListener {
+
+        private final List<QueryInfo> statements = new ArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            statements.addAll(queryInfoList);
+        }
+
+        synchronized void reset() {
+            statements.clear();
+        }
+
+        synchronized List<QueryInfo> deviceStatements() {
+            return statements.stream()
+                    .filter(statement -> {
+                        String query = statement.getQuery().toLowerCase(Locale.ROOT);
+                        return query.matches("(?s).*\\bdevice\\b.*") && !query.contains("nextval(");
+                    })
+                    .toList();
+        }
+    }
+
+    @TestConfiguration
+    static class StatementRecordingConfig {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor statementRecordingDataSourcePostProcessor(ObjectProvider<StatementRecorder> recorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .listener(recorder.getObject())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
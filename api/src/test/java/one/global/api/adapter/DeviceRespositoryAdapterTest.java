@@ -3,21 +3,32 @@ package one.global.api.adapter;
 import one.global.api.adapter.out.DeviceMapper;
 import one.global.api.adapter.out.entity.JpaDeviceEntity;
 import one.global.api.adapter.out.persistence.DeviceRespositoryAdapter;
+import one.global.api.adapter.out.persistence.JpaDeviceOutboxRepository;
 import one.global.api.adapter.out.persistence.JpaDeviceRepository;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.exception.DeviceNotFoundException;
 import one.global.api.domain.model.Device;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,9 +37,16 @@ class DeviceRespositoryAdapterTest {
     @Mock
     private JpaDeviceRepository jpaDeviceRepository;
 
+    @Mock
+    private JpaDeviceOutboxRepository jpaDeviceOutboxRepository;
+
     @Mock
     private DeviceMapper deviceMapper;
 
+    /*Handed to the adapter as its EntityManager.*/
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionImplementor session;
+
     private Device device;
 
     @InjectMocks
@@ -40,22 +58,24 @@ class DeviceRespositoryAdapterTest {
     }
 
     @Test
-    @DisplayName("Should successfully convert, persist, and return device with generated ID")
+    @DisplayName("Should successfully convert, persist, and return device with generated ID, logging a CREATED event")
     void save_ShouldConvertAndPersistDeviceWithGeneratedId() {
         var mappedEntity = getMappedEntity(device);
         var savedJpaEntity = getSavedEntity(mappedEntity);
         var expectedDevice = getSavedDevice();
 
         when(deviceMapper.fromDeviceToJpaDeviceEntity(device)).thenReturn(mappedEntity);
-        when(jpaDeviceRepository.save(any(JpaDeviceEntity.class))).thenReturn(savedJpaEntity);
+        when(jpaDeviceRepository.saveAndFlush(any(JpaDeviceEntity.class))).thenReturn(savedJpaEntity);
 
         when(deviceMapper.fromJpaDeviceEntityToDevice(savedJpaEntity)).thenReturn(expectedDevice);
 
         Device result = deviceRespositoryAdapter.save(device);
 
         verify(deviceMapper).fromDeviceToJpaDeviceEntity(device);
-        verify(jpaDeviceRepository).save(mappedEntity);
+        verify(jpaDeviceRepository).saveAndFlush(mappedEntity);
+        verify(jpaDeviceOutboxRepository).appendFromDevices(List.of(1L), "CREATED", null);
         verify(deviceMapper).fromJpaDeviceEntityToDevice(savedJpaEntity);
+        verifyNoMoreInteractions(jpaDeviceRepository, jpaDeviceOutboxRepository);
 
         assertNotNull(result);
         assertEquals(expectedDevice.getId(), result.getId());
@@ -66,6 +86,47 @@ class DeviceRespositoryAdapterTest {
 
     }
 
+    @Test
+    @DisplayName("Should update an existing device in a single statement without reading it again")
+    void save_ShouldUpdateExistingDeviceInOneStatement() {
+        var creationDate = LocalDateTime.of(2025, 1, 1, 10, 0);
+        var existing = Device.reconstruct(1L, "Device2", "BrandB", "IN_USE", creationDate, 3L);
+        CacheImplementor cache = givenSecondLevelCache();
+        when(jpaDeviceRepository.updateDevice(1L, "Device2", "BrandB", "IN_USE", 3L)).thenReturn(List.<Object[]>of(
+                new Object[]{1L, "Device2", "BrandB", "IN_USE", Timestamp.valueOf(creationDate), 4L}));
+
+        Device result = deviceRespositoryAdapter.save(existing);
+
+        verify(jpaDeviceRepository).updateDevice(1L, "Device2", "BrandB", "IN_USE", 3L);
+        verifyNoMoreInteractions(jpaDeviceRepository, jpaDeviceOutboxRepository);
+        // the statement bypasses Hibernate, so the cached entity has to go
+        verify(cache).evictEntityData(JpaDeviceEntity.class, 1L);
+        assertEquals(4L, result.getVersion());
+        assertEquals(State.IN_USE, result.getState());
+        assertEquals(creationDate, result.getCreationDate());
+    }
+
+    @Test
+    @DisplayName("Should report an optimistic locking failure when the device changed since it was read")
+    void save_ShouldFailWhenVersionMovedOn() {
+        var stale = Device.reconstruct(1L, "Device2", "BrandB", "AVAILABLE", LocalDateTime.now(), 3L);
+        givenSecondLevelCache();
+        when(jpaDeviceRepository.updateDevice(1L, "Device2", "BrandB", "AVAILABLE", 3L))
+                .thenReturn(List.<Object[]>of(new Object[6]));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> deviceRespositoryAdapter.save(stale));
+    }
+
+    @Test
+    @DisplayName("Should report a missing device, not a conflict, when it was deleted since it was read")
+    void save_ShouldFailWithNotFoundWhenDeviceWasDeleted() {
+        var deleted = Device.reconstruct(1L, "Device2", "BrandB", "AVAILABLE", LocalDateTime.now(), 3L);
+        givenSecondLevelCache();
+        when(jpaDeviceRepository.updateDevice(1L, "Device2", "BrandB", "AVAILABLE", 3L)).thenReturn(List.of());
+
+        assertThrows(DeviceNotFoundException.class, () -> deviceRespositoryAdapter.save(deleted));
+    }
+
     @Test
     @DisplayName("Should successfully find a device by ID and return it")
     void findById_ShouldReturnDevice_WhenFound() {
@@ -120,10 +181,12 @@ class DeviceRespositoryAdapterTest {
         return entity;
     }
     private Device getSavedDevice() {
-        Device savedDevice = this.device;
-        savedDevice.setId(1L);
-        return savedDevice;
+        return Device.reconstruct(1L, device.getName(), device.getBrand(), device.getState().name(),
+                device.getCreationDate());
     }
 
+    private CacheImplementor givenSecondLevelCache() {
+        when(session.unwrap(SessionImplementor.class)).thenReturn(session);
+        return session.getFactory().getCache();
+    }
 }
-
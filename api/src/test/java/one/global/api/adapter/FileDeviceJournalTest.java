@@ -0,0 +1,235 @@
+package one.global.api.adapter;
+
+import one.global.api.adapter.out.journal.FileDeviceJournal;
+import one.global.api.adapter.out.journal.JournalDeviceRepositoryAdapter;
+import one.global.api.adapter.out.memory.InMemoryDeviceOutboxAdapter;
+import one.global.api.adapter.out.memory.InMemoryDeviceRepositoryAdapter;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.exception.ChangeTokenExpiredException;
+import one.global.api.domain.model.ChangeToken;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDeviceJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    private FileDeviceJournal journal;
+    private InMemoryDeviceRepositoryAdapter store;
+    private JournalDeviceRepositoryAdapter repository;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should recover devices, versions, deletions and the id sequence after a restart")
+    void recover_ShouldRebuildStoreFromJournal() throws IOException {
+        open();
+        Device first = repository.save(new Device("Phone", "Acme"));
+        Device second = repository.save(new Device("Tablet", "Acme"));
+        repository.transitionState(first.getId(), State.IN_USE, null);
+        repository.delete(second.getId(), Device.deletableStates(), null);
+
+        reopen();
+
+        Device recovered = repository.findById(first.getId());
+        assertEquals("Phone", recovered.getName());
+        assertEquals(State.IN_USE, recovered.getState());
+        assertEquals(first.getCreationDate(), recovered.getCreationDate());
+        assertEquals(1L, recovered.getVersion());
+        assertNull(repository.findById(second.getId()));
+        assertEquals(1, repository.count(DeviceFilter.of(null, State.IN_USE)));
+        assertEquals(second.getId() + 1, repository.save(new Device("Watch", "Acme")).getId());
+    }
+
+    @Test
+    @DisplayName("Should replace the journal with a snapshot and keep writes made after it")
+    void compact_ShouldSnapshotAndDropOldSegments() throws Exception {
+        open();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Device>> futures = IntStream.range(0, 200)
+                    .mapToObj(i -> executor.submit(() -> repository.save(new Device("Device " + i, "Brand" + i % 5))))
+                    .toList();
+            for (Future<Device> future : futures) {
+                future.get();
+            }
+        }
+        journal.compact(store);
+        repository.delete(1L, Device.deletableStates(), null);
+        Device renamed = repository.findById(2L);
+        renamed.updateDetails("Renamed", null);
+        repository.save(renamed);
+        Set<DeviceCount> counts = Set.copyOf(repository.countByBrandAndState());
+
+        reopen();
+
+        assertTrue(Files.exists(directory.resolve("snapshot.bin")));
+        assertFalse(Files.exists(directory.resolve("journal-%020d.log".formatted(0))));
+        assertEquals(199, repository.count(DeviceFilter.NONE));
+        assertNull(repository.findById(1L));
+        assertEquals("Renamed", repository.findById(2L).getName());
+        assertEquals(counts, Set.copyOf(repository.countByBrandAndState()));
+    }
+
+    @Test
+    @DisplayName("Should keep every write acknowledged while compactions run")
+    void compact_ShouldKeepWritesMadeDuringCompaction() throws Exception {
+        open(new FileDeviceJournal(directory) {
+            @Override
+            public void written(Device device) {
+                super.written(device);
+                // widens the gap between a record reaching the journal and the store applying it
+                LockSupport.parkNanos(1_000_000);
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            repository.save(new Device("Device " + i, "Brand" + i % 5));
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> writers = IntStream.range(0, 4).<Future<?>>mapToObj(worker -> executor.submit(() -> {
+                var random = ThreadLocalRandom.current();
+                while (writing.get()) {
+                    State state = State.values()[random.nextInt(State.values().length)];
+                    repository.transitionState(random.nextLong(1, 101), state, null);
+                    Device created = repository.save(new Device("Created by " + worker, "Brand" + worker));
+                    if (random.nextBoolean()) {
+                        repository.delete(created.getId(), Device.deletableStates(), null);
+                    }
+                }
+            })).toList();
+            for (int i = 0; i < 50; i++) {
+                journal.compact(store);
+            }
+            writing.set(false);
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        }
+        Map<Long, String> acknowledged = contents();
+
+        reopen();
+
+        assertEquals(acknowledged, contents());
+    }
+
+    @Test
+    @DisplayName("Should drop a record torn by a crash at the end of the journal")
+    void recover_ShouldTruncateTornTail() throws IOException {
+        open();
+        repository.save(new Device("Phone", "Acme"));
+        repository.save(new Device("Tablet", "Acme"));
+        journal.close();
+        Path segment = directory.resolve("journal-%020d.log".formatted(0));
+        try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        open();
+
+        assertEquals("Phone", repository.findById(1L).getName());
+        assertNull(repository.findById(2L));
+        assertEquals("Laptop", repository.save(new Device("Laptop", "Acme")).getName());
+        reopen();
+        assertEquals(2, repository.count(DeviceFilter.NONE));
+    }
+
+    @Test
+    @DisplayName("Should reject change tokens handed out before the store was recovered")
+    void recover_ShouldExpireEarlierChangeTokens() throws IOException {
+        open();
+        repository.save(new Device("Phone", "Acme"));
+        ChangeToken token = repository.findChanges(ChangeToken.START, 10).nextToken();
+        repository.save(new Device("Tablet", "Acme"));
+
+        reopen();
+
+        assertThrows(ChangeTokenExpiredException.class, () -> repository.findChanges(token, 10));
+        DeviceChanges all = repository.findChanges(ChangeToken.START, 10);
+        assertEquals(2, all.changes().size());
+        assertTrue(repository.findChanges(all.nextToken(), 10).changes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stop serving the store after a failed flush and recover only what reached the disk")
+    void flushFailure_ShouldStopTheStore() throws IOException {
+        AtomicBoolean failFlushes = new AtomicBoolean();
+        open(new FileDeviceJournal(directory) {
+            @Override
+            protected void sync(FileChannel channel) throws IOException {
+                if (failFlushes.get()) {
+                    throw new IOException("disk full");
+                }
+                super.sync(channel);
+            }
+        });
+        Device durable = repository.save(new Device("Phone", "Acme"));
+
+        failFlushes.set(true);
+        assertThrows(UncheckedIOException.class, () -> repository.save(new Device("Tablet", "Acme")));
+
+        assertThrows(UncheckedIOException.class, () -> repository.findById(durable.getId()));
+        assertThrows(UncheckedIOException.class, () -> repository.save(new Device("Watch", "Acme")));
+        assertThrows(UncheckedIOException.class, () -> store.save(new Device("Laptop", "Acme")));
+        assertEquals(2, store.count(DeviceFilter.NONE));
+
+        reopen();
+
+        // the failed write may or may not have reached the disk; the refused ones never did
+        assertEquals("Phone", repository.findById(durable.getId()).getName());
+        assertTrue(repository.search("Watch", SearchMode.CONTAINS, 10).isEmpty());
+        assertTrue(repository.search("Laptop", SearchMode.CONTAINS, 10).isEmpty());
+    }
+
+    private Map<Long, String> contents() {
+        Map<Long, String> devices = new HashMap<>();
+        store.streamAll(null, null, device -> devices.put(device.getId(),
+                device.getName() + "|" + device.getBrand() + "|" + device.getState() + "|" + device.getVersion()));
+        return devices;
+    }
+
+    private void open() throws IOException {
+        open(new FileDeviceJournal(directory));
+    }
+
+    private void open(FileDeviceJournal deviceJournal) throws IOException {
+        journal = deviceJournal;
+        store = new InMemoryDeviceRepositoryAdapter(new InMemoryDeviceOutboxAdapter(), journal);
+        journal.recover(store);
+        repository = new JournalDeviceRepositoryAdapter(store, journal, Long.MAX_VALUE);
+    }
+
+    private void reopen() throws IOException {
+        journal.close();
+        open();
+    }
+}
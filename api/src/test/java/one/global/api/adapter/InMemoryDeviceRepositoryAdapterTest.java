@@ -0,0 +1,201 @@
+package one.global.api.adapter;
+
+import one.global.api.adapter.out.memory.DeviceStoreListener;
+import one.global.api.adapter.out.memory.InMemoryDeviceOutboxAdapter;
+import one.global.api.adapter.out.memory.InMemoryDeviceRepositoryAdapter;
+import one.global.api.domain.enums.DeviceEventType;
+import one.global.api.domain.enums.DeviceSortKey;
+import one.global.api.domain.enums.SearchMode;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.exception.ChangeTokenExpiredException;
+import one.global.api.domain.exception.DeviceNotFoundException;
+import one.global.api.domain.model.ChangeToken;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceEvent;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.OutboxPosition;
+import one.global.api.web.dto.PaginatedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryDeviceRepositoryAdapterTest {
+
+    private InMemoryDeviceOutboxAdapter outbox;
+    private InMemoryDeviceRepositoryAdapter repository;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new InMemoryDeviceOutboxAdapter();
+        repository = new InMemoryDeviceRepositoryAdapter(outbox);
+        // ids 1..30, brands A/B/C in turn, every third device of brand A in use
+        for (int i = 1; i <= 30; i++) {
+            Device device = repository.save(new Device("Device " + i, "Brand" + (char) ('A' + (i - 1) % 3)));
+            if (i % 9 == 1) {
+                repository.transitionState(device.getId(), State.IN_USE, null);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through filtered devices in id order, like the JPA adapter")
+    void findSlice_ShouldFilterAndPageInIdOrder() {
+        var filter = new DeviceFilter(Set.of("BrandA"), Set.of(State.AVAILABLE), null, null);
+
+        PaginatedResponse<Device> first = repository.findSlice(filter, DeviceSort.DEFAULT, 0, 3);
+        PaginatedResponse<Device> last = repository.findSlice(filter, DeviceSort.DEFAULT, 1, 3);
+
+        assertEquals(List.of(4L, 7L, 13L), ids(first));
+        assertTrue(first.isHasNext());
+        assertEquals(List.of(16L, 22L, 25L), ids(last));
+        assertFalse(last.isHasNext());
+        assertEquals(6, repository.count(filter));
+        assertEquals(List.of(30L, 29L), ids(repository.findSlice(DeviceFilter.NONE, new DeviceSort(DeviceSortKey.ID, true), 0, 2)));
+        assertEquals(List.of("Device 9", "Device 8"), repository.findSlice(DeviceFilter.NONE,
+                new DeviceSort(DeviceSortKey.NAME, true), 0, 2).getContent().stream().map(Device::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor id in both directions")
+    void findAllAfter_ShouldResumeAfterCursor() {
+        var filter = new DeviceFilter(Set.of("BrandB", "BrandC"), Set.of(), null, null);
+
+        PaginatedResponse<Device> page = repository.findAllAfter(filter, DeviceSort.DEFAULT, 5L, 4);
+        PaginatedResponse<Device> descending = repository.findAllAfter(DeviceFilter.of(null, State.IN_USE),
+                new DeviceSort(DeviceSortKey.ID, true), 28L, 10);
+
+        assertEquals(List.of(6L, 8L, 9L, 11L), ids(page));
+        assertNotNull(page.getNextCursor());
+        assertEquals(List.of(19L, 10L, 1L), ids(descending));
+        assertNull(descending.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should move devices between indexes and honour versions on update, transition and delete")
+    void writes_ShouldKeepIndexesAndVersions() {
+        Device device = repository.findById(2L);
+        device.updateDetails("Renamed", "BrandZ");
+
+        Device updated = repository.save(device);
+
+        assertEquals(1L, updated.getVersion());
+        assertEquals(List.of(2L), ids(repository.findSlice(DeviceFilter.of("BrandZ", null), DeviceSort.DEFAULT, 0, 10)));
+        assertFalse(ids(repository.findSlice(DeviceFilter.of("BrandB", null), DeviceSort.DEFAULT, 0, 10)).contains(2L));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.save(device));
+
+        assertFalse(repository.transitionState(2L, State.INACTIVE, 0L).applied());
+        assertTrue(repository.transitionState(2L, State.INACTIVE, 1L).applied());
+        assertFalse(repository.delete(1L, Device.deletableStates(), null).deleted());
+        assertTrue(repository.delete(2L, Device.deletableStates(), 2L).deleted());
+        assertNull(repository.findById(2L));
+        assertNull(repository.delete(2L, Device.deletableStates(), null));
+        assertThrows(DeviceNotFoundException.class, () -> repository.save(device));
+        assertEquals(0, repository.count(DeviceFilter.of("BrandZ", null)));
+    }
+
+    @Test
+    @DisplayName("Should report each changed device once in the change feed and queue its events")
+    void findChanges_ShouldReturnLatestChangePerDevice() {
+        DeviceChanges all = repository.findChanges(ChangeToken.START, 1000);
+        repository.transitionState(3L, State.INACTIVE, null);
+        repository.delete(5L, Device.deletableStates(), null);
+
+        DeviceChanges since = repository.findChanges(all.nextToken(), 1);
+        DeviceChanges rest = repository.findChanges(since.nextToken(), 10);
+
+        assertEquals(30, all.changes().size());
+        assertEquals(3L, since.changes().getFirst().id());
+        assertTrue(since.hasMore());
+        assertTrue(rest.changes().getFirst().deleted());
+        assertFalse(rest.hasMore());
+
+        List<DeviceEvent> events = outbox.readAfter(OutboxPosition.START, 100).events();
+        assertEquals(30 + 4 + 2, events.size());
+        assertEquals(DeviceEventType.DELETED, events.getLast().type());
+    }
+
+    @Test
+    @DisplayName("Should prune old tombstones only and reject tokens from before them")
+    void pruneTombstones_ShouldExpireOlderTokens() {
+        ChangeToken beforeDeletion = repository.findChanges(ChangeToken.START, 1000).nextToken();
+        repository.delete(5L, Device.deletableStates(), null);
+        ChangeToken afterDeletion = repository.findChanges(beforeDeletion, 1000).nextToken();
+
+        assertEquals(0, repository.pruneTombstones(Duration.ofHours(1)));
+        assertEquals(1, repository.pruneTombstones(Duration.ZERO));
+
+        assertThrows(ChangeTokenExpiredException.class, () -> repository.findChanges(beforeDeletion, 10));
+        assertTrue(repository.findChanges(afterDeletion, 10).changes().isEmpty());
+        DeviceChanges all = repository.findChanges(ChangeToken.START, 1000);
+        assertEquals(29, all.changes().size());
+        assertTrue(all.changes().stream().noneMatch(change -> change.deleted()));
+    }
+
+    @Test
+    @DisplayName("Should find devices by prefix, substring and with a typo")
+    void search_ShouldMatchLikeTheDatabase() {
+        repository.save(new Device("Galaxy S9", "Samsung"));
+
+        assertEquals(11, repository.search("device 1", SearchMode.PREFIX, 20).size());
+        assertEquals(List.of("Galaxy S9"), repository.search("axy", SearchMode.CONTAINS, 20).stream().map(Device::getName).toList());
+        assertEquals(List.of("Galaxy S9"), repository.search("galxy", SearchMode.FUZZY, 20).stream().map(Device::getName).toList());
+        // several words are scored against the closest single word of the name
+        assertEquals(List.of("Galaxy S9"), repository.search("galaxy s9", SearchMode.FUZZY, 20).stream().map(Device::getName).toList());
+        assertTrue(repository.search("galxy s9", SearchMode.FUZZY, 20).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply the configured fuzzy search cut-off")
+    void search_ShouldUseConfiguredFuzzyThreshold() {
+        var strict = new InMemoryDeviceRepositoryAdapter(new InMemoryDeviceOutboxAdapter(), DeviceStoreListener.NONE, 0.9);
+        strict.save(new Device("Galaxy S9", "Samsung"));
+
+        assertTrue(strict.search("galxy", SearchMode.FUZZY, 20).isEmpty());
+        assertEquals(1, strict.search("galaxy", SearchMode.FUZZY, 20).size());
+    }
+
+    @Test
+    @DisplayName("Should keep the state indexes consistent under concurrent writers")
+    void concurrentTransitions_ShouldKeepIndexesConsistent() throws Exception {
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = IntStream.range(0, 8).<Future<?>>mapToObj(worker -> executor.submit(() -> {
+                var random = ThreadLocalRandom.current();
+                for (int i = 0; i < 5_000; i++) {
+                    State state = State.values()[random.nextInt(State.values().length)];
+                    repository.transitionState(random.nextLong(1, 31), state, null);
+                }
+            })).toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        long total = 0;
+        for (State state : State.values()) {
+            long indexed = repository.count(DeviceFilter.of(null, state));
+            long stored = repository.countByBrandAndState().stream()
+                    .filter(count -> count.state() == state).mapToLong(DeviceCount::count).sum();
+            assertEquals(stored, indexed);
+            total += indexed;
+        }
+        assertEquals(30, total);
+    }
+
+    private static List<Long> ids(PaginatedResponse<Device> page) {
+        return page.getContent().stream().map(Device::getId).toList();
+    }
+}
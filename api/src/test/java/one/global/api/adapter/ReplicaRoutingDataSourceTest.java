@@ -0,0 +1,114 @@
+package one.global.api.adapter;
+
+import one.global.api.adapter.out.persistence.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, Duration.ofMinutes(1), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        routingDataSource.setCurrentClient(null);
+    }
+
+    @Test
+    @DisplayName("Should use the primary outside routed calls and for writes, the replica for reads")
+    void getConnection_ShouldFollowTheRoute() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertSame(replicaConnection, routingDataSource.read(this::connection));
+        assertSame(primaryConnection, routingDataSource.write(this::connection));
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should keep the reads of a client that wrote on the primary, and only that client's")
+    void read_ShouldStayOnPrimaryAfterOwnWrite() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        routingDataSource.setCurrentClient("writer");
+        routingDataSource.write(() -> null);
+        assertSame(primaryConnection, routingDataSource.read(this::connection));
+
+        routingDataSource.setCurrentClient("reader");
+        assertSame(replicaConnection, routingDataSource.read(this::connection));
+    }
+
+    @Test
+    @DisplayName("Should not pin anonymous callers, who may all share one address")
+    void read_ShouldNotPinAnonymousCallers() throws SQLException {
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        routingDataSource.write(() -> null);
+
+        assertSame(replicaConnection, routingDataSource.read(this::connection));
+    }
+
+    @Test
+    @DisplayName("Should send reads to the primary while the replica lags or cannot be reached")
+    void read_ShouldFallBackToPrimaryWhenReplicaLags() throws SQLException {
+        Connection lagConnection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(lagConnection).thenThrow(new SQLException("down"));
+        when(lagConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.getDouble(1)).thenReturn(30.0);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        routingDataSource.checkReplicaLag();
+        assertEquals(30.0, routingDataSource.replicaLagSeconds());
+        assertSame(primaryConnection, routingDataSource.read(this::connection));
+
+        routingDataSource.checkReplicaLag();
+        assertTrue(Double.isNaN(routingDataSource.replicaLagSeconds()));
+        assertSame(primaryConnection, routingDataSource.read(this::connection));
+    }
+
+    private Connection connection() {
+        try {
+            return routingDataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
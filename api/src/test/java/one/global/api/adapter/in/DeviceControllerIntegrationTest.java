@@ -1,31 +1,61 @@
 package one.global.api.adapter.in;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import one.global.api.adapter.out.cache.CachingDeviceRepository;
+import one.global.api.application.port.out.DeviceOutbox;
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.application.service.DeviceCountCache;
+import one.global.api.application.service.DeviceOutboxRelay;
+import one.global.api.config.QueryCounter;
+import one.global.api.config.QueryCountingConfig;
+import one.global.api.domain.enums.DeviceEventType;
 import one.global.api.domain.enums.State;
+import one.global.api.domain.model.DeviceEvent;
 import one.global.api.web.dto.DeviceRequestDTO;
 import one.global.api.web.dto.DeviceUpdateDTO;
+import one.global.api.web.proto.DeviceProtos;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
 @Testcontainers
+@Import(QueryCountingConfig.class)
 @DisplayName("DeviceController Integration Tests")
 class DeviceControllerIntegrationTest {
 
@@ -38,6 +68,27 @@ class DeviceControllerIntegrationTest {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired(required = false)
+    private CachingDeviceRepository deviceCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DeviceCountCache deviceCountCache;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DeviceOutbox deviceOutbox;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
 
     @Container
     static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
@@ -60,6 +111,12 @@ class DeviceControllerIntegrationTest {
     @BeforeEach
     void setUp() {
         jdbcTemplate.update("TRUNCATE TABLE device RESTART IDENTITY CASCADE");
+        if (deviceCache != null) {
+            deviceCache.invalidateAll();
+        }
+        deviceCountCache.invalidate();
+        // the truncate bypasses Hibernate, so rows it cached for reused ids would outlive it
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
     }
 
     @Test
@@ -143,6 +200,39 @@ class DeviceControllerIntegrationTest {
     }
 
 
+    @Test
+    @DisplayName("Should create devices in bulk and report invalid ones by index")
+    void shouldCreateDevicesInBulk() throws Exception {
+        List<DeviceRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            requests.add(new DeviceRequestDTO("Bulk Device " + i, "BrandBulk"));
+        }
+        requests.add(new DeviceRequestDTO("", "BrandBulk"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.content.created", hasSize(250)))
+                .andExpect(jsonPath("$.content.errors", hasSize(1)))
+                .andExpect(jsonPath("$.content.errors[0].index").value(250));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandBulk&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(250));
+    }
+
+    @Test
+    @DisplayName("Should return BAD_REQUEST when no device of the batch is valid")
+    void shouldReturnBadRequestWhenNoBatchDeviceIsValid() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new DeviceRequestDTO(null, "BrandX")))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.content.errors[0].code").value("INVALID_PARAMETER_ERROR"));
+    }
+
     @Test
     @DisplayName("Should retrieve a device by ID successfully")
     void shouldRetrieveDeviceByIdSuccessfully() throws Exception {
@@ -161,6 +251,124 @@ class DeviceControllerIntegrationTest {
                 .andExpect(jsonPath("$.content.name").value("Device to Get"));
     }
 
+    @Test
+    @DisplayName("Should return NOT_MODIFIED when the device ETag is unchanged")
+    void shouldReturnNotModifiedWhenETagIsUnchanged() throws Exception {
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should reject a stale If-Match with PRECONDITION_FAILED")
+    void shouldRejectStaleIfMatch() throws Exception {
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"IN_USE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"INACTIVE\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errors[0].code").value("DEVICE_VERSION_MISMATCH"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.state").value("IN_USE"));
+    }
+
+    @Test
+    @DisplayName("Should check If-Match against the stored version when the cached device is behind it")
+    void shouldCheckIfMatchAgainstStoredVersion() throws Exception {
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id)).andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        // another instance writes; neither cache of this one hears about it
+        jdbcTemplate.update("UPDATE device SET name = 'Renamed', version = version + 1 WHERE id = ?", id);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/devices/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Device2\",\"brand\":\"BrandA\",\"state\":\"AVAILABLE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Device3\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errors[0].code").value("DEVICE_VERSION_MISMATCH"));
+    }
+
+    @Test
+    @DisplayName("Should update without If-Match when another instance wrote behind the cache")
+    void shouldUpdateFromStoredVersionWithoutIfMatch() throws Exception {
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id)).andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        // another instance writes; neither cache of this one hears about it
+        jdbcTemplate.update("UPDATE device SET name = 'Renamed', version = version + 1 WHERE id = ?", id);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/devices/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Device2\",\"brand\":\"BrandA\",\"state\":\"AVAILABLE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id))
+                .andExpect(jsonPath("$.content.name").value("Device2"));
+    }
+
+    @Test
+    @DisplayName("Should change the state of many devices and report every outcome")
+    void shouldChangeDevicesStateInBulk() throws Exception {
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(List.of(
+                                new DeviceRequestDTO("Device1", "BrandA"), new DeviceRequestDTO("Device2", "BrandA")))))
+                .andReturn().getResponse().getContentAsString();
+        long first = objectMapper.readTree(created).at("/content/created/0/id").asLong();
+        long second = objectMapper.readTree(created).at("/content/created/1/id").asLong();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", second)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"INACTIVE\"}"));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/state/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids", List.of(first, second, 999_999L), "state", "INACTIVE"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("1 devices changed, 1 unchanged, 1 not found"))
+                .andExpect(jsonPath("$.content[0].outcome").value("CHANGED"))
+                .andExpect(jsonPath("$.content[0].previousState").value("AVAILABLE"))
+                .andExpect(jsonPath("$.content[1].outcome").value("UNCHANGED"))
+                .andExpect(jsonPath("$.content[2].outcome").value("NOT_FOUND"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", first))
+                .andExpect(jsonPath("$.content.state").value("INACTIVE"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA&state=INACTIVE"))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(2));
+    }
+
     @Test
     @DisplayName("Should return NOT_FOUND when device ID does not exist")
     void shouldReturnNotFoundWhenDeviceIdDoesNotExist() throws Exception {
@@ -185,6 +393,91 @@ class DeviceControllerIntegrationTest {
                 .andExpect(jsonPath("$.parameters.pagination.totalPages").value(2));
     }
 
+    @Test
+    @DisplayName("Should retrieve devices without totals when withTotal is false")
+    void shouldRetrieveDevicesWithoutTotals() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))));
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device2", "BrandA"))));
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device3", "BrandB"))));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?page=0&size=2&withTotal=false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.parameters.pagination.hasNext").value(true))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").doesNotExist());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?page=1&size=2&withTotal=false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.parameters.pagination.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("Should keep cached totals in sync with create, update and delete")
+    void shouldKeepCachedTotalsInSyncWithWrites() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA"))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(1));
+
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device2", "BrandA"))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA"))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(2));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"INACTIVE\"}"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA&state=INACTIVE"))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(1));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/devices/{id}", id));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA"))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(1));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA&state=INACTIVE"))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(0));
+    }
+
+    @Test
+    @DisplayName("Should retrieve all devices with cursor pagination")
+    void shouldRetrieveAllDevicesWithCursorPagination() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))));
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device2", "BrandA"))));
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device3", "BrandB"))));
+
+        String firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/devices?after=&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].name").value("Device1"))
+                .andExpect(jsonPath("$.parameters.pagination.hasNext").value(true))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).at("/parameters/pagination/nextCursor").asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices").param("after", nextCursor).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("Device3"))
+                .andExpect(jsonPath("$.parameters.pagination.hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("Should return BAD_REQUEST when cursor is malformed")
+    void shouldReturnBadRequestWhenCursorIsMalformed() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?after=not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     @DisplayName("Should retrieve devices filtered by brand")
     void shouldRetrieveDevicesFilteredByBrand() throws Exception {
@@ -226,6 +519,58 @@ class DeviceControllerIntegrationTest {
     }
 
 
+    @Test
+    @DisplayName("Should export devices matching the filters as NDJSON")
+    void shouldExportDevicesAsNdjson() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandExport"))));
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device2", "BrandExport"))));
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device3", "BrandOther"))));
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/devices/export?brand=BrandExport"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("name").asText()).isEqualTo("Device1");
+        assertThat(objectMapper.readTree(lines[1]).get("name").asText()).isEqualTo("Device2");
+    }
+
+    @Test
+    @DisplayName("Should export devices as CSV with quoted fields")
+    void shouldExportDevicesAsCsv() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Smart TV 55\"", "Brand, Inc"))));
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/devices/export?format=csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines[0]).isEqualTo("id,name,brand,state,creationDate");
+        assertThat(lines[1]).contains(",\"Smart TV 55\"\"\",\"Brand, Inc\",AVAILABLE,");
+    }
+
+    @Test
+    @DisplayName("Should return BAD_REQUEST when export format is not supported")
+    void shouldReturnBadRequestWhenExportFormatIsNotSupported() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should update an existing device successfully")
     void shouldUpdateExistingDeviceSuccessfully() throws Exception {
@@ -347,4 +692,345 @@ class DeviceControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should delete many devices and keep the ones in use")
+    void shouldDeleteDevicesInBulk() throws Exception {
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(List.of(
+                                new DeviceRequestDTO("Device1", "BrandA"), new DeviceRequestDTO("Device2", "BrandA")))))
+                .andReturn().getResponse().getContentAsString();
+        long first = objectMapper.readTree(created).at("/content/created/0/id").asLong();
+        long second = objectMapper.readTree(created).at("/content/created/1/id").asLong();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", second)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"IN_USE\"}"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/delete/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second, 999_999L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("1 devices deleted, 2 not deleted"))
+                .andExpect(jsonPath("$.content[0].outcome").value("DELETED"))
+                .andExpect(jsonPath("$.content[1].outcome").value("IN_USE"))
+                .andExpect(jsonPath("$.content[2].outcome").value("NOT_FOUND"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", first)).andExpect(status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA"))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(1));
+    }
+
+    @Test
+    @DisplayName("Should search devices by name or brand, case-insensitively and with typos in fuzzy mode")
+    void shouldSearchDevicesByNameOrBrand() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(List.of(
+                        new DeviceRequestDTO("Galaxy S24", "Samsung"), new DeviceRequestDTO("iPhone 15", "Apple"),
+                        new DeviceRequestDTO("Pixel 9", "Google")))));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/search?q=GALA&mode=prefix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Galaxy S24"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/search?q=pple"))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].brand").value("Apple"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/search?q=galxy&mode=fuzzy"))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Galaxy S24"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/search?q=%25_%25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/search?q=ga"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should filter by several brands and creation date and sort by whitelisted keys")
+    void shouldFilterAndSortDevices() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(List.of(
+                        new DeviceRequestDTO("Alpha", "BrandA"), new DeviceRequestDTO("Beta", "BrandB"),
+                        new DeviceRequestDTO("Gamma", "BrandC")))));
+        LocalDate today = LocalDate.now();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA,BrandB&state=AVAILABLE&sort=name,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Beta"))
+                .andExpect(jsonPath("$.content[1].name").value("Alpha"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?createdFrom={from}&createdTo={to}&sort=creationDate",
+                        today.minusDays(1), today))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(3));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandC&createdFrom={from}", today.plusDays(1)))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(0));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?sort=color"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?after=&sort=name"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should summarize devices per state and per brand")
+    void shouldSummarizeDevicesPerStateAndBrand() throws Exception {
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(List.of(
+                                new DeviceRequestDTO("Alpha", "BrandA"), new DeviceRequestDTO("Beta", "BrandA"),
+                                new DeviceRequestDTO("Gamma", "BrandB")))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/created/0/id").asLong();
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"IN_USE\"}"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.total").value(3))
+                .andExpect(jsonPath("$.content.byState.AVAILABLE").value(2))
+                .andExpect(jsonPath("$.content.byState.IN_USE").value(1))
+                .andExpect(jsonPath("$.content.byState.INACTIVE").value(0))
+                .andExpect(jsonPath("$.content.byBrand.BrandB.AVAILABLE").value(1));
+    }
+
+    @Test
+    @DisplayName("Should stream committed device changes to every subscriber, whichever instance relays them")
+    void shouldStreamDeviceChangesAsServerSentEvents() throws Exception {
+        MvcResult stream = mockMvc.perform(MockMvcRequestBuilders.get("/devices/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult otherStream = mockMvc.perform(MockMvcRequestBuilders.get("/devices/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // a second instance reading the same outbox with a relay of its own
+        List<DeviceEvent> otherInstance = new CopyOnWriteArrayList<>();
+        var otherRelay = new DeviceOutboxRelay(deviceOutbox, List.of(otherInstance::addAll), 2, Duration.ofHours(1));
+        otherRelay.relayPending();
+
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Renamed\"}"));
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"INACTIVE\"}"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/devices/{id}", id));
+
+        List<String> events = List.of();
+        List<String> otherEvents = List.of();
+        for (long deadline = System.currentTimeMillis() + 10_000;
+             (events.size() < 4 || otherEvents.size() < 4) && System.currentTimeMillis() < deadline; ) {
+            Thread.sleep(100);
+            otherRelay.relayPending();
+            events = deviceEvents(stream, id);
+            otherEvents = deviceEvents(otherStream, id);
+        }
+
+        assertThat(events).hasSize(4);
+        assertThat(otherEvents).isEqualTo(events);
+        assertThat(events.get(0)).contains("event:CREATED", "\"name\":\"Device1\"");
+        assertThat(events.get(1)).contains("event:UPDATED", "\"name\":\"Renamed\"");
+        assertThat(events.get(2)).contains("event:STATE_CHANGED", "\"state\":\"INACTIVE\"", "\"previousState\":\"AVAILABLE\"");
+        assertThat(events.get(3)).contains("event:DELETED", "\"version\":2");
+        assertThat(otherInstance).filteredOn(event -> event.deviceId() == id)
+                .extracting(DeviceEvent::type)
+                .containsExactly(DeviceEventType.CREATED, DeviceEventType.UPDATED, DeviceEventType.STATE_CHANGED,
+                        DeviceEventType.DELETED);
+    }
+
+    private static List<String> deviceEvents(MvcResult stream, long id) throws Exception {
+        return Arrays.stream(stream.getResponse().getContentAsString().split("\n\n"))
+                .filter(event -> event.contains("\"deviceId\":" + id + ","))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should return only devices changed since the token, with tombstones for deletions")
+    void shouldReturnDeviceChangesSinceToken() throws Exception {
+        // catch up first: tombstones left by other tests are part of the feed too
+        String token = "";
+        boolean hasMore = true;
+        while (hasMore) {
+            String sync = mockMvc.perform(MockMvcRequestBuilders.get("/devices/changes?since={token}&limit=1000", token))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            token = objectMapper.readTree(sync).at("/content/nextToken").asText();
+            hasMore = objectMapper.readTree(sync).at("/content/hasMore").asBoolean();
+        }
+
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(List.of(
+                                new DeviceRequestDTO("Alpha", "BrandA"), new DeviceRequestDTO("Beta", "BrandA"),
+                                new DeviceRequestDTO("Gamma", "BrandB")))))
+                .andReturn().getResponse().getContentAsString();
+        long first = objectMapper.readTree(created).at("/content/created/0/id").asLong();
+        long second = objectMapper.readTree(created).at("/content/created/1/id").asLong();
+
+        String page = mockMvc.perform(MockMvcRequestBuilders.get("/devices/changes?since={token}&limit=2", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.changes.length()").value(2))
+                .andExpect(jsonPath("$.content.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(page).at("/content/nextToken").asText();
+        page = mockMvc.perform(MockMvcRequestBuilders.get("/devices/changes?since={token}&limit=2", token))
+                .andExpect(jsonPath("$.content.changes[0].device.name").value("Gamma"))
+                .andExpect(jsonPath("$.content.hasMore").value(false))
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(page).at("/content/nextToken").asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", first)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"INACTIVE\"}"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/devices/{id}", second));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/changes?since={token}", token))
+                .andExpect(jsonPath("$.content.changes.length()").value(2))
+                .andExpect(jsonPath("$.content.changes[0].id").value(first))
+                .andExpect(jsonPath("$.content.changes[0].deleted").value(false))
+                .andExpect(jsonPath("$.content.changes[0].device.state").value("INACTIVE"))
+                .andExpect(jsonPath("$.content.changes[1].id").value(second))
+                .andExpect(jsonPath("$.content.changes[1].deleted").value(true))
+                .andExpect(jsonPath("$.content.changes[1].device").doesNotExist());
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/changes?since=bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should answer 410 for a token from before the newest pruned tombstone")
+    void shouldExpireChangeTokensOlderThanPrunedTombstones() throws Exception {
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Pruned", "BrandA"))))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+        String token = "";
+        boolean hasMore = true;
+        while (hasMore) {
+            String sync = mockMvc.perform(MockMvcRequestBuilders.get("/devices/changes?since={token}&limit=1000", token))
+                    .andReturn().getResponse().getContentAsString();
+            token = objectMapper.readTree(sync).at("/content/nextToken").asText();
+            hasMore = objectMapper.readTree(sync).at("/content/hasMore").asBoolean();
+        }
+        mockMvc.perform(MockMvcRequestBuilders.delete("/devices/{id}", id));
+
+        assertThat(deviceRepository.pruneTombstones(Duration.ZERO)).isPositive();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM device_tombstone WHERE device_id = ?", Integer.class, id)).isZero();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/changes?since={token}", token))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.errors[0].code").value("CHANGE_TOKEN_EXPIRED"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/changes"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should answer in CBOR, Smile or Protobuf when asked to, and in JSON otherwise")
+    void shouldNegotiateBinaryWireFormats() throws Exception {
+        var cborMapper = new ObjectMapper(new CBORFactory());
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType("application/cbor")
+                        .content(cborMapper.writeValueAsBytes(new DeviceRequestDTO("Device1", "BrandA"))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM device WHERE name = 'Device1'", Long.class);
+
+        byte[] cbor = mockMvc.perform(MockMvcRequestBuilders.get("/devices").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(cborMapper.readTree(cbor).at("/content/0/name").asText()).isEqualTo("Device1");
+        assertThat(cborMapper.readTree(cbor).at("/parameters/pagination/totalElements").asLong()).isEqualTo(1);
+
+        byte[] smile = mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id).accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new ObjectMapper(new SmileFactory()).readTree(smile).at("/content/brand").asText()).isEqualTo("BrandA");
+
+        byte[] protobuf = mockMvc.perform(MockMvcRequestBuilders.get("/devices").accept("application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Protobuf-Message", "one.global.devices.v1.DeviceListResponse"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(DeviceProtos.DeviceListResponse.parseFrom(protobuf).getContent(0).getId()).isEqualTo(id);
+
+        byte[] notFound = mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id + 1).accept("application/x-protobuf"))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(DeviceProtos.DeviceResponse.parseFrom(notFound).getErrorsCount()).isEqualTo(1);
+
+        byte[] notAcceptable = mockMvc.perform(MockMvcRequestBuilders.get("/devices/summary").accept("application/x-protobuf"))
+                .andExpect(status().isNotAcceptable())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(DeviceProtos.DeviceResponse.parseFrom(notAcceptable).getErrors(0).getCode()).isEqualTo("NOT_ACCEPTABLE");
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/{id}", id).accept(MediaType.ALL))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Should time list calls per filter shape in the use case and the persistence adapter")
+    void shouldRecordListMetricsPerFilterShape() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))));
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandA,BrandB&withTotal=false"))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("device.usecase")
+                .tags("method", "getAllDevices", "brand", "many", "state", "any", "sort", "id,asc").timer().count())
+                .isPositive();
+        assertThat(meterRegistry.get("device.repository")
+                .tags("class", "DeviceRespositoryAdapter", "method", "findSlice", "brand", "many").timer().count())
+                .isPositive();
+        assertThat(meterRegistry.get("device.mapper").tags("method", "fromDeviceToDeviceResponseDTO").timer().count())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("Should keep every endpoint within its SQL statement budget")
+    void shouldStayWithinStatementBudgetPerEndpoint() throws Exception {
+        String created = expectStatements(2, MockMvcRequestBuilders.post("/devices/create")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceRequestDTO("Device1", "BrandA"))))
+                .getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+
+        // the insert already put the row in the second-level cache
+        expectStatements(0, MockMvcRequestBuilders.get("/devices/{id}", id));
+        expectStatements(0, MockMvcRequestBuilders.get("/devices/{id}", id));
+        // updates read the stored row past the cache, then write it once
+        expectStatements(2, MockMvcRequestBuilders.put("/devices/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new DeviceUpdateDTO("Device2", "BrandB", "AVAILABLE"))));
+        expectStatements(2, MockMvcRequestBuilders.patch("/devices/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Device3\"}"));
+        expectStatements(1, MockMvcRequestBuilders.patch("/devices/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"INACTIVE\"}"));
+
+        List<DeviceRequestDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            batch.add(new DeviceRequestDTO("Batch Device " + i, "BrandA"));
+        }
+        expectStatements(2, MockMvcRequestBuilders.post("/devices/create/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(batch)));
+        expectStatements(1, MockMvcRequestBuilders.patch("/devices/state/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(Map.of("ids", List.of(id), "state", "AVAILABLE"))));
+
+        expectStatements(1, MockMvcRequestBuilders.get("/devices?withTotal=false"));
+        expectStatements(2, MockMvcRequestBuilders.get("/devices?brand=BrandA"));
+        // the page comes from the query cache as well
+        expectStatements(0, MockMvcRequestBuilders.get("/devices?brand=BrandA"));
+        expectStatements(0, MockMvcRequestBuilders.get("/devices/summary"));
+        expectStatements(1, MockMvcRequestBuilders.get("/devices/search?q=Batch"));
+        expectStatements(2, MockMvcRequestBuilders.get("/devices/changes"));
+        expectStatements(1, MockMvcRequestBuilders.delete("/devices/{id}", id));
+
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", "devices", "result", "hit").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("hibernate.cache.query.requests")
+                .tags("result", "hit").functionCounter().count()).isPositive();
+    }
+
+    private MvcResult expectStatements(int budget, MockHttpServletRequestBuilder request) throws Exception {
+        queryCounter.reset();
+        MvcResult result = mockMvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+        assertThat(queryCounter.statements()).as("SQL sent by %s %s", result.getRequest().getMethod(),
+                result.getRequest().getRequestURI()).hasSize(budget);
+        return result;
+    }
+
 }
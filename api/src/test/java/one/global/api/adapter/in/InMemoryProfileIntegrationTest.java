@@ -0,0 +1,58 @@
+package one.global.api.adapter.in;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.global.api.adapter.out.memory.InMemoryDeviceRepositoryAdapter;
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.web.dto.DeviceRequestDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("in-memory")
+@DisplayName("DeviceController on the in-memory profile")
+class InMemoryProfileIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Test
+    @DisplayName("Should serve the API without a database")
+    void shouldServeDevicesFromMemory() throws Exception {
+        assertThat(deviceRepository).isInstanceOf(InMemoryDeviceRepositoryAdapter.class);
+
+        String created = mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceRequestDTO("Memory Device", "BrandMem"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).at("/content/id").asLong();
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/devices/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"state\":\"IN_USE\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices?brand=BrandMem&state=IN_USE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(id))
+                .andExpect(jsonPath("$.parameters.pagination.totalElements").value(1));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/devices/{id}", id))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,149 @@
+package one.global.api.adapter.in;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.global.api.web.dto.DeviceRequestDTO;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/*Two unrelated databases stand in for primary and replica, so which one answered shows in the response.*/
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+@DisplayName("Read replica routing Integration Tests")
+class ReadReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static JdbcTemplate replicaJdbcTemplate;
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("device.datasource.replica.jdbc-url", replica::getJdbcUrl);
+        registry.add("device.datasource.replica.username", replica::getUsername);
+        registry.add("device.datasource.replica.password", replica::getPassword);
+        registry.add("device.datasource.routing.replica-methods", () -> "getDeviceById, getAllDevices");
+        // the device and second-level caches would answer lookups before they reach either database
+        registry.add("device.cache.enabled", () -> false);
+        registry.add("spring.jpa.properties.hibernate.cache.use_second_level_cache", () -> false);
+        registry.add("spring.jpa.properties.hibernate.cache.use_query_cache", () -> false);
+    }
+
+    @BeforeAll
+    static void migrateReplica() {
+        var dataSource = new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        replicaJdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("TRUNCATE TABLE device RESTART IDENTITY CASCADE");
+        replicaJdbcTemplate.update("TRUNCATE TABLE device RESTART IDENTITY CASCADE");
+        replicaJdbcTemplate.update("""
+                INSERT INTO device (id, name, brand, state, creation_date) VALUES (5000, 'Replica Phone', 'Acme', 'AVAILABLE', now())
+                """);
+    }
+
+    @Test
+    @DisplayName("Should answer configured reads from the replica")
+    void shouldServeConfiguredReadsFromReplica() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/5000").header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.name").value("Replica Phone"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices").header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id").value(5000));
+    }
+
+    @Test
+    @DisplayName("Should keep a client that just wrote on the primary while others still read the replica")
+    void shouldReadOwnWritesFromPrimary() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceRequestDTO("Primary Phone", "Acme"))))
+                .andExpect(status().isCreated());
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM device WHERE name = 'Primary Phone'", Long.class);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/" + id).header("X-Client-Id", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.name").value("Primary Phone"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/" + id).header("X-Client-Id", "reader"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should not pin callers without a client id to the primary after a write")
+    void shouldNotPinAnonymousWriters() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/devices/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DeviceRequestDTO("Primary Phone", "Acme"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.name").value("Replica Phone"));
+    }
+
+    @Test
+    @DisplayName("Should leave reads that are not configured for the replica on the primary")
+    void shouldServeOtherReadsFromPrimary() throws Exception {
+        jdbcTemplate.update("INSERT INTO device (name, brand, state, creation_date) VALUES ('Primary Tablet', 'Acme', 'AVAILABLE', now())");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/devices/search?q=tablet").header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("Primary Tablet"));
+    }
+}
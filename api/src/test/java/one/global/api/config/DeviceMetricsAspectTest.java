@@ -0,0 +1,79 @@
+package one.global.api.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.entity.JpaDeviceEntity;
+import one.global.api.application.port.in.DeviceUseCase;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.exception.DeviceNotFoundException;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeviceMetricsAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeviceUseCase target = mock(DeviceUseCase.class);
+
+    private DeviceUseCase deviceUseCase;
+
+    @BeforeEach
+    void setUp() {
+        var proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new DeviceMetricsAspect(meterRegistry));
+        deviceUseCase = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Should time list calls tagged with the filter shape and sort")
+    void listCalls_ShouldBeTaggedWithFilterShape() {
+        var filter = new DeviceFilter(Set.of("BrandA", "BrandB"), Set.of(State.AVAILABLE), null, null);
+
+        deviceUseCase.getAllDevices(filter, DeviceSort.from("name,desc"), 0, 10, false);
+        deviceUseCase.getAllDevices(filter, DeviceSort.from("name,desc"), 1, 10, false);
+
+        Timer timer = meterRegistry.get("device.usecase")
+                .tags("method", "getAllDevices", "brand", "many", "state", "one", "createdRange", "false",
+                        "sort", "name,desc", "mode", "none", "exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    @DisplayName("Should record failed calls under the exception tag and rethrow")
+    void failedCalls_ShouldBeTaggedWithException() {
+        when(target.getDeviceById(1L)).thenThrow(new DeviceNotFoundException("Device not found"));
+
+        assertThrows(DeviceNotFoundException.class, () -> deviceUseCase.getDeviceById(1L));
+
+        assertEquals(1, meterRegistry.get("device.usecase")
+                .tags("method", "getDeviceById", "brand", "none", "exception", "DeviceNotFoundException")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("Should time every mapper call against one timer per mapper method")
+    void mapperCalls_ShouldShareOneTimerPerMethod() {
+        var proxyFactory = new AspectJProxyFactory(mock(DeviceMapper.class));
+        proxyFactory.addAspect(new DeviceMetricsAspect(meterRegistry));
+        DeviceMapper mapper = proxyFactory.getProxy();
+
+        for (int i = 0; i < 3; i++) {
+            mapper.fromJpaDeviceEntityToDevice(new JpaDeviceEntity());
+        }
+
+        assertEquals(1, meterRegistry.find("device.mapper").timers().size());
+        assertEquals(3, meterRegistry.get("device.mapper")
+                .tags("method", "fromJpaDeviceEntityToDevice", "exception", "none")
+                .timer().count());
+    }
+}
@@ -0,0 +1,45 @@
+package one.global.api.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Records the statements sent to the database by the current thread, one entry per round trip (a JDBC batch counts
+ * once). Scheduled jobs such as the outbox relay run on their own threads and never show up in a test's budget.
+ * Sequence fetches are left out: the pooled id generator only hits the database every hundred inserts.
+ */
+public class QueryCounter implements QueryExecutionListener {
+
+    private final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String query = queryInfoList.getFirst().getQuery().strip();
+        if (!query.toLowerCase(Locale.ROOT).contains("nextval(")) {
+            statements.get().add(query);
+        }
+    }
+
+    public void reset() {
+        statements.get().clear();
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements.get());
+    }
+
+    public long count(String keyword) {
+        return statements.get().stream()
+                .filter(query -> query.regionMatches(true, 0, keyword, 0, keyword.length()))
+                .count();
+    }
+}
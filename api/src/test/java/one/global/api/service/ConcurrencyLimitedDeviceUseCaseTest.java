@@ -0,0 +1,78 @@
+package one.global.api.service;
+
+import one.global.api.application.port.in.DeviceUseCase;
+import one.global.api.application.service.ConcurrencyLimitedDeviceUseCase;
+import one.global.api.domain.exception.DeviceNotFoundException;
+import one.global.api.domain.exception.ServiceBusyException;
+import one.global.api.domain.model.Device;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDeviceUseCaseTest {
+
+    @Mock
+    private DeviceUseCase delegate;
+
+    private ConcurrencyLimitedDeviceUseCase limitedDeviceUseCase;
+
+    @BeforeEach
+    void setUp() {
+        limitedDeviceUseCase = new ConcurrencyLimitedDeviceUseCase(delegate, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should delegate and release the permit afterwards")
+    void getDeviceById_ShouldDelegateAndReleasePermit() {
+        var device = new Device("Device1", "BrandA");
+        when(delegate.getDeviceById(1L)).thenReturn(device);
+
+        assertSame(device, limitedDeviceUseCase.getDeviceById(1L));
+        assertEquals(1, limitedDeviceUseCase.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the delegate throws")
+    void deleteDevice_ShouldReleasePermit_WhenDelegateThrows() {
+        doThrow(new DeviceNotFoundException("Device not found")).when(delegate).deleteDevice(1L, null);
+
+        assertThrows(DeviceNotFoundException.class, () -> limitedDeviceUseCase.deleteDevice(1L));
+        assertEquals(1, limitedDeviceUseCase.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should reject calls with ServiceBusyException once every permit is taken")
+    void getDeviceById_ShouldThrowServiceBusy_WhenNoPermitIsAvailable() throws Exception {
+        var inCall = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(delegate.getDeviceById(1L)).thenAnswer(invocation -> {
+            inCall.countDown();
+            release.await();
+            return null;
+        });
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var firstCall = executor.submit(() -> limitedDeviceUseCase.getDeviceById(1L));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ServiceBusyException.class, () -> limitedDeviceUseCase.getDeviceById(2L));
+
+            release.countDown();
+            firstCall.get(5, TimeUnit.SECONDS);
+        }
+        verify(delegate, never()).getDeviceById(2L);
+        assertEquals(1, limitedDeviceUseCase.availablePermits());
+    }
+}
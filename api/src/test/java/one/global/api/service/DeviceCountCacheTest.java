@@ -0,0 +1,110 @@
+package one.global.api.service;
+
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.application.service.DeviceCountCache;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceCountCacheTest {
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    private DeviceCountCache deviceCountCache;
+
+    @BeforeEach
+    void setUp() {
+        deviceCountCache = new DeviceCountCache(deviceRepository, Duration.ofMinutes(5));
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(
+                new DeviceCount("BrandA", State.AVAILABLE, 4),
+                new DeviceCount("BrandA", State.IN_USE, 2),
+                new DeviceCount("BrandB", State.AVAILABLE, 1)));
+    }
+
+    @Test
+    @DisplayName("Should aggregate counts per brand, per state and overall")
+    void count_ShouldAggregateEveryFilterCombination() {
+        assertEquals(4, deviceCountCache.count("BrandA", State.AVAILABLE));
+        assertEquals(6, deviceCountCache.count("BrandA", null));
+        assertEquals(5, deviceCountCache.count(null, State.AVAILABLE));
+        assertEquals(7, deviceCountCache.count(null, null));
+        assertEquals(0, deviceCountCache.count("BrandC", null));
+        verify(deviceRepository, times(1)).countByBrandAndState();
+    }
+
+    @Test
+    @DisplayName("Should keep counts up to date on create, update and delete")
+    void count_ShouldApplyIncrementalChanges() {
+        deviceCountCache.count(null, null);
+
+        deviceCountCache.onCreated("BrandC", State.AVAILABLE);
+        deviceCountCache.onUpdated("BrandA", State.AVAILABLE, "BrandA", State.INACTIVE);
+        deviceCountCache.onDeleted("BrandB", State.AVAILABLE);
+
+        assertEquals(1, deviceCountCache.count("BrandC", null));
+        assertEquals(3, deviceCountCache.count("BrandA", State.AVAILABLE));
+        assertEquals(1, deviceCountCache.count(null, State.INACTIVE));
+        assertEquals(4, deviceCountCache.count(null, State.AVAILABLE));
+        assertEquals(7, deviceCountCache.count(null, null));
+        verify(deviceRepository, times(1)).countByBrandAndState();
+    }
+
+    @Test
+    @DisplayName("Should reload counts from the repository once the refresh interval has passed")
+    void count_ShouldReloadAfterRefreshInterval() {
+        var clock = mock(Clock.class);
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        when(clock.instant()).thenReturn(start, start.plus(Duration.ofMinutes(6)));
+        deviceCountCache = new DeviceCountCache(deviceRepository, Duration.ofMinutes(5), clock);
+
+        deviceCountCache.count(null, null);
+        deviceCountCache.onCreated("BrandA", State.AVAILABLE);
+
+        assertEquals(7, deviceCountCache.count(null, null));
+        verify(deviceRepository, times(2)).countByBrandAndState();
+    }
+
+    @Test
+    @DisplayName("Should summarize counts per state and per brand, filling missing states with zero")
+    void summary_ShouldReportEveryState() {
+        deviceCountCache.onCreated("BrandB", State.INACTIVE);
+
+        DeviceSummary summary = deviceCountCache.summary();
+
+        assertEquals(7, summary.total());
+        assertEquals(Map.of(State.AVAILABLE, 5L, State.IN_USE, 2L, State.INACTIVE, 0L), summary.byState());
+        assertEquals(Map.of(State.AVAILABLE, 4L, State.IN_USE, 2L, State.INACTIVE, 0L), summary.byBrand().get("BrandA"));
+        assertEquals(List.of("BrandA", "BrandB"), List.copyOf(summary.byBrand().keySet()));
+        verify(deviceRepository, times(1)).countByBrandAndState();
+    }
+
+    @Test
+    @DisplayName("Should replace drifted counts with the database totals on reconcile")
+    void reconcile_ShouldReloadCounts() {
+        deviceCountCache.count(null, null);
+        deviceCountCache.onDeleted("BrandA", State.IN_USE);
+
+        deviceCountCache.reconcile();
+
+        assertEquals(2, deviceCountCache.count("BrandA", State.IN_USE));
+        assertEquals(7, deviceCountCache.summary().total());
+        verify(deviceRepository, times(2)).countByBrandAndState();
+    }
+}
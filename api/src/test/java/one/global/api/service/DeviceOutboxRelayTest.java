@@ -0,0 +1,158 @@
+package one.global.api.service;
+
+import one.global.api.adapter.out.memory.InMemoryDeviceOutboxAdapter;
+import one.global.api.application.port.out.DeviceEventPublisher;
+import one.global.api.application.port.out.DeviceOutbox;
+import one.global.api.application.service.DeviceOutboxRelay;
+import one.global.api.domain.enums.DeviceEventType;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceEvent;
+import one.global.api.domain.model.DeviceEvents;
+import one.global.api.domain.model.OutboxPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceOutboxRelayTest {
+
+    private static final OutboxPosition TAIL = new OutboxPosition(100, 0);
+
+    @Mock
+    private DeviceOutbox deviceOutbox;
+
+    @Mock
+    private DeviceEventPublisher firstPublisher;
+
+    @Mock
+    private DeviceEventPublisher secondPublisher;
+
+    private DeviceOutboxRelay deviceOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        deviceOutboxRelay = new DeviceOutboxRelay(deviceOutbox, List.of(firstPublisher, secondPublisher), 2,
+                Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Should start at the tail, read batch by batch and hand every batch to each publisher")
+    void relayPending_ShouldPublishEveryBatchToEveryPublisher() {
+        var firstBatch = List.of(event(1), event(2));
+        var lastBatch = List.of(event(3));
+        when(deviceOutbox.tail()).thenReturn(TAIL);
+        when(deviceOutbox.readAfter(TAIL, 2)).thenReturn(new DeviceEvents(firstBatch, position(2), true));
+        when(deviceOutbox.readAfter(position(2), 2)).thenReturn(new DeviceEvents(lastBatch, position(3), false));
+        when(deviceOutbox.readAfter(position(3), 2)).thenReturn(new DeviceEvents(List.of(), position(3), false));
+
+        assertEquals(3, deviceOutboxRelay.relayPending());
+        assertEquals(0, deviceOutboxRelay.relayPending());
+
+        verify(deviceOutbox, times(1)).tail();
+        var inOrder = inOrder(firstPublisher, secondPublisher);
+        inOrder.verify(firstPublisher).publish(firstBatch);
+        inOrder.verify(secondPublisher).publish(firstBatch);
+        inOrder.verify(firstPublisher).publish(lastBatch);
+        inOrder.verify(secondPublisher).publish(lastBatch);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("Should hand a batch again only to the publisher that failed it, and propagate the failure")
+    void relayPending_ShouldRetryOnlyTheFailingPublisher() {
+        var batch = List.of(event(1), event(2));
+        when(deviceOutbox.tail()).thenReturn(TAIL);
+        when(deviceOutbox.readAfter(TAIL, 2)).thenReturn(new DeviceEvents(batch, position(2), false));
+        when(deviceOutbox.readAfter(position(2), 2)).thenReturn(new DeviceEvents(List.of(), position(2), false));
+        doThrow(new IllegalStateException("broker down")).doNothing().when(firstPublisher).publish(any());
+
+        assertThrows(IllegalStateException.class, () -> deviceOutboxRelay.relayPending());
+        verify(secondPublisher).publish(batch);
+
+        assertEquals(2, deviceOutboxRelay.relayPending());
+        verify(firstPublisher, times(2)).publish(batch);
+        verify(secondPublisher, times(1)).publish(batch);
+    }
+
+    @Test
+    @DisplayName("Should start live publishers at the tail and durable ones at the oldest retained event")
+    void relayPending_ShouldReplayRetainedEventsToDurablePublishers() {
+        var outbox = new InMemoryDeviceOutboxAdapter();
+        List<DeviceEvent> live = new ArrayList<>();
+        List<DeviceEvent> durable = new ArrayList<>();
+        DeviceEventPublisher durablePublisher = new DeviceEventPublisher() {
+            @Override
+            public void publish(List<DeviceEvent> events) {
+                durable.addAll(events);
+            }
+
+            @Override
+            public boolean durable() {
+                return true;
+            }
+        };
+        // committed while the instance was down
+        appendCreated(outbox, 1);
+        appendCreated(outbox, 2);
+        var relay = new DeviceOutboxRelay(outbox, List.of(live::addAll, durablePublisher), 2, Duration.ofHours(1));
+
+        relay.relayPending();
+        appendCreated(outbox, 3);
+        relay.relayPending();
+
+        assertEquals(List.of(3L), live.stream().map(DeviceEvent::deviceId).toList());
+        assertEquals(List.of(1L, 2L, 3L), durable.stream().map(DeviceEvent::deviceId).toList());
+    }
+
+    @Test
+    @DisplayName("Should deliver every event to the relay of each instance reading the same outbox")
+    void relayPending_ShouldDeliverEveryEventToEveryInstance() {
+        var outbox = new InMemoryDeviceOutboxAdapter();
+        List<DeviceEvent> firstInstance = new ArrayList<>();
+        List<DeviceEvent> secondInstance = new ArrayList<>();
+        var firstRelay = new DeviceOutboxRelay(outbox, List.of(firstInstance::addAll), 2, Duration.ofHours(1));
+        var secondRelay = new DeviceOutboxRelay(outbox, List.of(secondInstance::addAll), 2, Duration.ofHours(1));
+        firstRelay.relayPending();
+        secondRelay.relayPending();
+
+        for (long id = 1; id <= 5; id++) {
+            outbox.append(DeviceEventType.CREATED, Device.reconstruct(id, "Device" + id, "BrandA", "AVAILABLE",
+                    LocalDateTime.now(), 0L), null);
+        }
+        assertEquals(5, firstRelay.relayPending());
+        outbox.append(DeviceEventType.DELETED, Device.reconstruct(1L, "Device1", "BrandA", "AVAILABLE",
+                LocalDateTime.now(), 0L), null);
+        assertEquals(1, firstRelay.relayPending());
+        assertEquals(6, secondRelay.relayPending());
+
+        assertEquals(6, firstInstance.size());
+        assertEquals(firstInstance, secondInstance);
+    }
+
+    private static void appendCreated(InMemoryDeviceOutboxAdapter outbox, long id) {
+        outbox.append(DeviceEventType.CREATED, Device.reconstruct(id, "Device" + id, "BrandA", "AVAILABLE",
+                LocalDateTime.now(), 0L), null);
+    }
+
+    private static OutboxPosition position(long sequence) {
+        return new OutboxPosition(100, sequence);
+    }
+
+    private static DeviceEvent event(long sequence) {
+        return new DeviceEvent(sequence, DeviceEventType.STATE_CHANGED, sequence, "Device" + sequence, "BrandA",
+                State.IN_USE, State.AVAILABLE, 1L, LocalDateTime.of(2025, 1, 1, 0, 0));
+    }
+}
@@ -12,18 +12,45 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.application.service.DeviceCountCache;
 import one.global.api.application.service.DeviceUserCaseService;
 import one.global.api.application.validation.DeviceAttributesValidator;
+import one.global.api.domain.enums.DeletionOutcome;
+import one.global.api.domain.enums.SearchMode;
 import one.global.api.domain.enums.State;
+import one.global.api.domain.enums.TransitionOutcome;
 import one.global.api.domain.exception.DeviceInUseException;
 import one.global.api.domain.exception.DeviceNotFoundException;
+import one.global.api.domain.exception.DeviceVersionConflictException;
+import one.global.api.domain.model.ChangeToken;
+import one.global.api.domain.model.CreationResult;
 import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceChanges;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.DeletionResult;
+import one.global.api.domain.model.DeviceCount;
+import one.global.api.domain.model.DeviceDeletion;
+import one.global.api.domain.model.DeviceStateChange;
+import one.global.api.domain.model.NewDevice;
+import one.global.api.domain.model.StateTransition;
+import one.global.api.domain.model.TransitionResult;
 import one.global.api.Utils.Utils;
+import one.global.api.web.dto.PaginatedResponse;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -70,6 +97,43 @@ class DeviceUseCaseServiceTest {
         verify(mockNameBrandValidator, times(1)).validate(name, brand);
     }
 
+    @Test
+    @DisplayName("Create devices should save valid devices in one batch and report invalid ones by index")
+    void createDevices_shouldSaveValidDevicesAndReportInvalidOnes() {
+        var requests = List.of(
+                new NewDevice("Device1", "BrandA"),
+                new NewDevice("", "BrandB"),
+                new NewDevice("Device3", "BrandC"));
+        var service = new DeviceUserCaseService(deviceRepository, List.of(validator));
+        when(deviceRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CreationResult result = service.createDevices(requests);
+
+        assertEquals(2, result.created().size());
+        assertEquals(List.of(new CreationResult.Rejection(1, "INVALID_PARAMETER_ERROR", "Name and brand must not be empty")),
+                result.rejected());
+        verify(deviceRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Create devices should not touch the repository when every device is invalid")
+    void createDevices_shouldNotSave_whenAllDevicesAreInvalid() {
+        doThrow(new InvalidDeviceParameter("Name and brand must not be empty"))
+                .when(mockNameBrandValidator).validate(null, null);
+
+        CreationResult result = deviceUserCaseService.createDevices(List.of(new NewDevice(null, null)));
+
+        assertTrue(result.created().isEmpty());
+        assertEquals(1, result.rejected().size());
+        verify(deviceRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Create devices should throw exception when no device is provided")
+    void createDevices_shouldThrowException_whenEmpty() {
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.createDevices(List.of()));
+    }
+
     @Test
     @DisplayName("Should not throw exception when name and brand are valid")
     void shouldNotThrowExceptionWhenNameAndBrandAreValid() {
@@ -123,6 +187,241 @@ class DeviceUseCaseServiceTest {
         assertThrows(DeviceNotFoundException.class, () -> deviceUserCaseService.getDeviceById(nonExistentId));
     }
 
+    @Test
+    @DisplayName("Get all devices with cursor should decode the cursor into the last seen id")
+    void getAllDevicesWithCursor_shouldDecodeCursorIntoLastSeenId() {
+        String cursor = Utils.encodeCursor(42L);
+
+        deviceUserCaseService.getAllDevices("BrandA", State.AVAILABLE, cursor, 10);
+
+        verify(deviceRepository, times(1)).findAllAfter(DeviceFilter.of("BrandA", State.AVAILABLE), DeviceSort.DEFAULT, 42L, 10);
+    }
+
+    @Test
+    @DisplayName("Get all devices with an empty cursor should start from the first device")
+    void getAllDevicesWithEmptyCursor_shouldStartFromFirstDevice() {
+        deviceUserCaseService.getAllDevices(DeviceFilter.NONE, DeviceSort.DEFAULT, "", 10);
+
+        verify(deviceRepository, times(1)).findAllAfter(DeviceFilter.NONE, DeviceSort.DEFAULT, null, 10);
+    }
+
+    @Test
+    @DisplayName("Get all devices should throw exception when cursor is malformed")
+    void getAllDevicesWithCursor_shouldThrowInvalidDeviceParameter_whenCursorIsMalformed() {
+        assertThrows(InvalidDeviceParameter.class,
+                () -> deviceUserCaseService.getAllDevices(DeviceFilter.NONE, DeviceSort.DEFAULT, "not-a-cursor", 10));
+        assertThrows(InvalidDeviceParameter.class,
+                () -> deviceUserCaseService.getAllDevices(DeviceFilter.NONE, DeviceSort.from("name"), "", 10));
+        verify(deviceRepository, never()).findAllAfter(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Get all devices without total should not count devices")
+    void getAllDevicesWithoutTotal_shouldNotCountDevices() {
+        var slice = new PaginatedResponse<>(List.of(testDevice), 10, true, null);
+        when(deviceRepository.findSlice(DeviceFilter.NONE, DeviceSort.DEFAULT, 0, 10)).thenReturn(slice);
+
+        PaginatedResponse<Device> result = deviceUserCaseService.getAllDevices(DeviceFilter.NONE, DeviceSort.DEFAULT, 0, 10, false);
+
+        assertTrue(result.isHasNext());
+        verify(deviceRepository, never()).countByBrandAndState();
+    }
+
+    @Test
+    @DisplayName("Get all devices with total should serve totals from the count cache")
+    void getAllDevicesWithTotal_shouldServeTotalsFromCountCache() {
+        var countCache = new DeviceCountCache(deviceRepository, Duration.ofMinutes(5));
+        var service = new DeviceUserCaseService(deviceRepository, List.of(validator), countCache);
+        when(deviceRepository.findSlice(eq(DeviceFilter.of("BrandA", State.AVAILABLE)), eq(DeviceSort.DEFAULT), eq(0), eq(10)))
+                .thenReturn(new PaginatedResponse<>(List.of(testDevice), 10, true, null));
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(
+                new DeviceCount("BrandA", State.AVAILABLE, 25),
+                new DeviceCount("BrandA", State.IN_USE, 3)));
+
+        PaginatedResponse<Device> firstCall = service.getAllDevices("BrandA", State.AVAILABLE, 0, 10, true);
+        PaginatedResponse<Device> secondCall = service.getAllDevices("BrandA", State.AVAILABLE, 0, 10, true);
+
+        assertEquals(25, firstCall.getTotalElements());
+        assertEquals(3, firstCall.getTotalPages());
+        assertEquals(25, secondCall.getTotalElements());
+        verify(deviceRepository, times(1)).countByBrandAndState();
+    }
+
+    @Test
+    @DisplayName("Get all devices should throw exception when page or size are out of range")
+    void getAllDevices_shouldThrowInvalidDeviceParameter_whenPageOrSizeAreOutOfRange() {
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.getAllDevices(DeviceFilter.NONE, DeviceSort.DEFAULT, -1, 10, true));
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.getAllDevices(DeviceFilter.NONE, DeviceSort.DEFAULT, 0, 0, false));
+        verify(deviceRepository, never()).findSlice(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Get all devices should sum cached totals over several brands and states")
+    void getAllDevicesWithTotal_shouldSumCachedTotalsOverFilterValues() {
+        var filter = new DeviceFilter(Set.of("BrandA", "BrandB"), Set.of(State.AVAILABLE, State.IN_USE), null, null);
+        when(deviceRepository.findSlice(filter, DeviceSort.DEFAULT, 0, 10))
+                .thenReturn(new PaginatedResponse<>(List.of(testDevice), 10, false, null));
+        when(deviceRepository.countByBrandAndState()).thenReturn(List.of(
+                new DeviceCount("BrandA", State.AVAILABLE, 25),
+                new DeviceCount("BrandA", State.INACTIVE, 4),
+                new DeviceCount("BrandB", State.IN_USE, 3),
+                new DeviceCount("BrandC", State.AVAILABLE, 7)));
+
+        PaginatedResponse<Device> result = deviceUserCaseService.getAllDevices(filter, DeviceSort.DEFAULT, 0, 10, true);
+
+        assertEquals(28, result.getTotalElements());
+        verify(deviceRepository, never()).count(any());
+    }
+
+    @Test
+    @DisplayName("Get all devices should count in the database when filtering by creation date")
+    void getAllDevicesWithTotal_shouldCountInDatabase_whenFilteringByDate() {
+        var filter = new DeviceFilter(Set.of("BrandA"), Set.of(), LocalDate.of(2025, 1, 1), null);
+        var sort = DeviceSort.from("creationDate,desc");
+        when(deviceRepository.findSlice(filter, sort, 1, 10))
+                .thenReturn(new PaginatedResponse<>(List.of(testDevice), 10, false, null));
+        when(deviceRepository.count(filter)).thenReturn(11L);
+
+        PaginatedResponse<Device> result = deviceUserCaseService.getAllDevices(filter, sort, 1, 10, true);
+
+        assertEquals(11, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        verify(deviceRepository, never()).countByBrandAndState();
+    }
+
+    @Test
+    @DisplayName("Update device should throw exception when expected version is stale")
+    void updateDevice_shouldThrowVersionConflict_whenExpectedVersionIsStale() {
+        Device storedDevice = Device.reconstruct(1L, "TestName", "TestBrand", "AVAILABLE", LocalDateTime.now(), 3L);
+        when(deviceRepository.findCurrentById(1L)).thenReturn(storedDevice);
+
+        assertThrows(DeviceVersionConflictException.class,
+                () -> deviceUserCaseService.updateDevice(1L, "NewName", "NewBrand", State.INACTIVE, 2L));
+        verify(deviceRepository, never()).save(any(Device.class));
+    }
+
+    @Test
+    @DisplayName("Update device should check the expected version against the stored device, not a cached copy")
+    void updateDevice_shouldCheckExpectedVersionAgainstStoredDevice() {
+        Device storedDevice = Device.reconstruct(1L, "TestName", "TestBrand", "AVAILABLE", LocalDateTime.now(), 3L);
+        when(deviceRepository.findCurrentById(1L)).thenReturn(storedDevice);
+        when(deviceRepository.save(any(Device.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Device result = deviceUserCaseService.updateDevice(1L, "NewName", "NewBrand", State.INACTIVE, 3L);
+
+        assertEquals("NewName", result.getName());
+        verify(deviceRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Partially update device should change state when expected version matches")
+    void partiallyUpdateDevice_shouldTransitionState_whenExpectedVersionMatches() {
+        Device updatedDevice = Device.reconstruct(1L, "TestName", "TestBrand", "IN_USE", LocalDateTime.now(), 4L);
+        when(deviceRepository.transitionState(1L, State.IN_USE, 3L))
+                .thenReturn(new StateTransition(updatedDevice, State.AVAILABLE, 3L));
+
+        Device result = deviceUserCaseService.partiallyUpdateDevice(1L, null, null, State.IN_USE, 3L);
+
+        assertEquals(4L, result.getVersion());
+        verify(deviceRepository, never()).findById(anyLong());
+        verify(deviceRepository, never()).save(any(Device.class));
+    }
+
+    @Test
+    @DisplayName("Partially update device should throw exception when the state transition is not applied")
+    void partiallyUpdateDevice_shouldThrow_whenStateTransitionIsNotApplied() {
+        when(deviceRepository.transitionState(eq(1L), eq(State.INACTIVE), any()))
+                .thenReturn(new StateTransition(null, State.AVAILABLE, 5L));
+        when(deviceRepository.transitionState(eq(2L), eq(State.INACTIVE), any())).thenReturn(null);
+
+        assertThrows(DeviceVersionConflictException.class,
+                () -> deviceUserCaseService.partiallyUpdateDevice(1L, null, null, State.INACTIVE, 4L));
+        assertThrows(DeviceNotFoundException.class,
+                () -> deviceUserCaseService.partiallyUpdateDevice(2L, null, null, State.INACTIVE, null));
+    }
+
+    @Test
+    @DisplayName("Change devices state should report an outcome per requested id in request order")
+    void changeDevicesState_shouldReportOutcomePerId() {
+        when(deviceRepository.transitionStates(List.of(1L, 2L, 3L, 4L), State.INACTIVE))
+                .thenReturn(List.of(
+                        new DeviceStateChange(1L, "BrandA", State.AVAILABLE, true),
+                        new DeviceStateChange(2L, "BrandA", State.INACTIVE, false),
+                        new DeviceStateChange(4L, "BrandB", State.IN_USE, true)));
+
+        List<TransitionResult> results = deviceUserCaseService.changeDevicesState(List.of(3L, 1L, 2L, 1L, 4L), State.INACTIVE);
+
+        assertEquals(List.of(3L, 1L, 2L, 4L), results.stream().map(TransitionResult::id).toList());
+        assertEquals(List.of(TransitionOutcome.NOT_FOUND, TransitionOutcome.CHANGED, TransitionOutcome.UNCHANGED, TransitionOutcome.CHANGED),
+                results.stream().map(TransitionResult::outcome).toList());
+        assertEquals(State.AVAILABLE, results.get(1).previousState());
+    }
+
+    @Test
+    @DisplayName("Change devices state should throw exception when ids or state are missing")
+    void changeDevicesState_shouldThrowInvalidDeviceParameter_whenInputIsInvalid() {
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.changeDevicesState(List.of(), State.IN_USE));
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.changeDevicesState(Arrays.asList(1L, null), State.IN_USE));
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.changeDevicesState(List.of(1L), null));
+        verify(deviceRepository, never()).transitionStates(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Search devices should trim the term and reject short terms or limits out of range")
+    void searchDevices_shouldValidateTermAndLimit() {
+        when(deviceRepository.search("gala", SearchMode.PREFIX, 20)).thenReturn(List.of(testDevice));
+
+        assertEquals(List.of(testDevice), deviceUserCaseService.searchDevices("  gala ", SearchMode.PREFIX, 20));
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.searchDevices(" ga ", SearchMode.CONTAINS, 20));
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.searchDevices(null, SearchMode.CONTAINS, 20));
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.searchDevices("gala", SearchMode.FUZZY, 101));
+        verify(deviceRepository, times(1)).search(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Device changes should resume from the decoded token and reject bad tokens or limits")
+    void getDeviceChanges_shouldDecodeTokenAndValidateLimit() {
+        var changes = new DeviceChanges(List.of(), new ChangeToken(42, 0), false);
+        when(deviceRepository.findChanges(ChangeToken.START, 500)).thenReturn(changes);
+        when(deviceRepository.findChanges(new ChangeToken(40, 7), 10)).thenReturn(changes);
+
+        assertSame(changes, deviceUserCaseService.getDeviceChanges(null, 500));
+        assertSame(changes, deviceUserCaseService.getDeviceChanges(Utils.encodeChangeToken(new ChangeToken(40, 7)), 10));
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.getDeviceChanges("not-a-token", 10));
+        assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.getDeviceChanges(null, 1001));
+        verify(deviceRepository, times(2)).findChanges(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Delete device should throw exception when expected version is stale")
+    void deleteDevice_shouldThrowVersionConflict_whenExpectedVersionIsStale() {
+        when(deviceRepository.delete(1L, Device.deletableStates(), 1L))
+                .thenReturn(new DeviceDeletion(1L, "TestBrand", State.AVAILABLE, 0L, false));
+
+        assertThrows(DeviceVersionConflictException.class, () -> deviceUserCaseService.deleteDevice(1L, 1L));
+    }
+
+    @Test
+    @DisplayName("Delete device should throw exception when device does not exist")
+    void deleteDevice_shouldThrowDeviceNotFound_whenNoRowMatches() {
+        when(deviceRepository.delete(1L, Device.deletableStates(), null)).thenReturn(null);
+
+        assertThrows(DeviceNotFoundException.class, () -> deviceUserCaseService.deleteDevice(1L));
+    }
+
+    @Test
+    @DisplayName("Delete devices should report an outcome per requested id in request order")
+    void deleteDevices_shouldReportOutcomePerId() {
+        when(deviceRepository.deleteAll(List.of(1L, 2L, 3L), Device.deletableStates())).thenReturn(List.of(
+                new DeviceDeletion(1L, "BrandA", State.AVAILABLE, 0L, true),
+                new DeviceDeletion(3L, "BrandA", State.IN_USE, 2L, false)));
+
+        List<DeletionResult> results = deviceUserCaseService.deleteDevices(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(new DeletionResult(3L, DeletionOutcome.IN_USE), new DeletionResult(2L, DeletionOutcome.NOT_FOUND),
+                new DeletionResult(1L, DeletionOutcome.DELETED)), results);
+    }
+
     @Test
     @DisplayName("Update device should update all details and state")
     void updateDevice_shouldUpdateAllDetailsAndState() {
@@ -131,7 +430,7 @@ class DeviceUseCaseServiceTest {
         String newBrand = "UpdatedBrand";
         State newState = State.INACTIVE;
 
-        when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+        when(deviceRepository.findCurrentById(anyLong())).thenReturn(testDevice);
         when(deviceRepository.save(any(Device.class))).thenReturn(testDevice);
 
 
@@ -141,6 +440,7 @@ class DeviceUseCaseServiceTest {
         assertEquals(newBrand, testDevice.getBrand());
         assertEquals(newState, testDevice.getState());
         verify(deviceRepository, times(1)).save(testDevice);
+        verify(deviceRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -151,7 +451,7 @@ class DeviceUseCaseServiceTest {
         inUseDevice.setId(id);
         inUseDevice.changeState(State.IN_USE);
 
-        when(deviceRepository.findById(id)).thenReturn(inUseDevice);
+        when(deviceRepository.findCurrentById(id)).thenReturn(inUseDevice);
 
         String newName = "UpdatedName";
         String newBrand = "TestBrand";
@@ -170,7 +470,7 @@ class DeviceUseCaseServiceTest {
         String validBrand = "ValidBrand";
         State newState = State.AVAILABLE;
 
-        when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+        when(deviceRepository.findCurrentById(anyLong())).thenReturn(testDevice);
 
         doThrow(new InvalidDeviceParameter("Name and brand must not be empty"))
                 .when(mockNameBrandValidator).validate(eq(invalidName), eq(validBrand));
@@ -190,7 +490,7 @@ class DeviceUseCaseServiceTest {
         String validName = "ValidName";
         State newState = State.AVAILABLE;
 
-        when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+        when(deviceRepository.findCurrentById(anyLong())).thenReturn(testDevice);
 
         doThrow(new InvalidDeviceParameter("Name and brand must not be empty"))
                 .when(mockNameBrandValidator).validate(eq(validName), eq(invalidBrand));
@@ -208,7 +508,7 @@ class DeviceUseCaseServiceTest {
         Long id = 1L;
         State newState = State.AVAILABLE;
 
-        when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+        when(deviceRepository.findCurrentById(anyLong())).thenReturn(testDevice);
 
         doThrow(new InvalidDeviceParameter("Name and brand must not be empty"))
                 .when(mockNameBrandValidator).validate(eq(null), eq(null));
@@ -228,7 +528,7 @@ class DeviceUseCaseServiceTest {
         String newName = "UpdatedName";
         String newBrand = "UpdatedBrand";
 
-        when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+        when(deviceRepository.findCurrentById(anyLong())).thenReturn(testDevice);
 
         assertThrows(InvalidDeviceParameter.class, () -> deviceUserCaseService.updateDevice(id, newName, newBrand, null));
         verify(deviceRepository, never()).save(any(Device.class));
@@ -245,7 +545,7 @@ class DeviceUseCaseServiceTest {
 
         try (var mockedStatic = mockStatic(Utils.class)) {
             mockedStatic.when(() -> Utils.isUpdatingNameAndBrand(newName, newBrand)).thenReturn(true);
-            when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+            when(deviceRepository.findCurrentById(anyLong())).thenReturn(testDevice);
 
             deviceUserCaseService.partiallyUpdateDevice(id, newName, newBrand, null);
 
@@ -262,17 +562,18 @@ class DeviceUseCaseServiceTest {
         Long id = 1L;
 
         State newState = State.INACTIVE;
-        testDevice.changeState(State.AVAILABLE);
-
+        Device updatedDevice = Device.reconstruct(id, testDevice.getName(), testDevice.getBrand(), newState.name(),
+                testDevice.getCreationDate(), 1L);
 
         try (var mockedStatic = mockStatic(Utils.class)) {
             mockedStatic.when(() -> Utils.isUpdatingNameAndBrand(null, null)).thenReturn(false);
-            when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+            when(deviceRepository.transitionState(id, newState, null))
+                    .thenReturn(new StateTransition(updatedDevice, State.AVAILABLE, 0L));
 
-            deviceUserCaseService.partiallyUpdateDevice(id, null, null, newState);
+            Device result = deviceUserCaseService.partiallyUpdateDevice(id, null, null, newState);
 
-            assertEquals(newState, testDevice.getState());
-            verify(deviceRepository, times(1)).save(testDevice);
+            assertEquals(newState, result.getState());
+            verify(deviceRepository, never()).save(any(Device.class));
         }
     }
 
@@ -286,7 +587,7 @@ class DeviceUseCaseServiceTest {
 
         try (var mockedStatic = mockStatic(Utils.class)) {
             mockedStatic.when(() -> Utils.isUpdatingNameAndBrand(null, null)).thenReturn(false);
-            when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+            when(deviceRepository.findCurrentById(anyLong())).thenReturn(testDevice);
 
             deviceUserCaseService.partiallyUpdateDevice(id, null, null, null);
 
@@ -307,7 +608,7 @@ class DeviceUseCaseServiceTest {
 
         try (var mockedStatic = mockStatic(Utils.class)) {
             mockedStatic.when(() -> Utils.isUpdatingNameAndBrand(newName, newBrand)).thenReturn(true);
-            when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+            when(deviceRepository.findCurrentById(anyLong())).thenReturn(testDevice);
 
             assertThrows(DeviceInUseException.class, () -> deviceUserCaseService.partiallyUpdateDevice(id, newName, newBrand, null));
             verify(deviceRepository, never()).save(any(Device.class));
@@ -318,23 +619,22 @@ class DeviceUseCaseServiceTest {
     @DisplayName("Delete device should delete when not in use")
     void deleteDevice_shouldDeleteDevice_whenNotIN_USE() {
         Long id = 1L;
-        testDevice.changeState(State.AVAILABLE);
-        when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
-
+        when(deviceRepository.delete(id, Device.deletableStates(), null))
+                .thenReturn(new DeviceDeletion(id, "TestBrand", State.AVAILABLE, 0L, true));
 
         deviceUserCaseService.deleteDevice(id);
 
-        verify(deviceRepository, times(1)).delete(id);
+        verify(deviceRepository, times(1)).delete(id, Device.deletableStates(), null);
+        verify(deviceRepository, never()).findById(anyLong());
     }
 
     @Test
     @DisplayName("Delete device should throw exception when device in use")
     void deleteDevice_shouldThrowException_whenDeviceIN_USE() {
         Long id = 1L;
-        testDevice.changeState(State.IN_USE);
-        when(deviceRepository.findById(anyLong())).thenReturn(testDevice);
+        when(deviceRepository.delete(id, Device.deletableStates(), null))
+                .thenReturn(new DeviceDeletion(id, "TestBrand", State.IN_USE, 0L, false));
 
         assertThrows(DeviceInUseException.class, () -> deviceUserCaseService.deleteDevice(id));
-        verify(deviceRepository, never()).delete(anyLong());
     }
 }
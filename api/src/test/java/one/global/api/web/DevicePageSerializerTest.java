@@ -0,0 +1,57 @@
+package one.global.api.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.DeviceMapperImpl;
+import one.global.api.domain.model.Device;
+import one.global.api.web.dto.AppResponse;
+import one.global.api.web.dto.DevicePageResponse;
+import one.global.api.web.dto.PaginatedResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DevicePageSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DeviceMapper deviceMapper = new DeviceMapperImpl();
+
+    private final List<Device> devices = List.of(
+            Device.reconstruct(1L, "Device1", "BrandA", "AVAILABLE", LocalDateTime.of(2025, 3, 7, 9, 5, 1)),
+            Device.reconstruct(2L, "Device \"2\"", "BrandB", "IN_USE", LocalDateTime.of(2024, 12, 31, 23, 59, 59)));
+
+    @Test
+    @DisplayName("Should serialize a page exactly like the AppResponse envelope")
+    void offsetPage_ShouldMatchAppResponseJson() throws Exception {
+        var page = new PaginatedResponse<>(devices, 0, 2, 5, 3);
+
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsString(AppResponse
+                .ok("Devices retrieved successfully", devices.stream().map(deviceMapper::fromDeviceToDeviceResponseDTO).toList())
+                .buildParametersPagination(0, 2, 5, 3)));
+        JsonNode actual = objectMapper.readTree(objectMapper.writeValueAsString(
+                DevicePageResponse.offset("Devices retrieved successfully", page)));
+
+        assertEquals(expected, actual);
+        assertEquals("2025-03-07 09:05:01", actual.at("/content/0/creationDate").asText());
+    }
+
+    @Test
+    @DisplayName("Should only emit hasNext for slices and the cursor for keyset pages")
+    void sliceAndCursorPages_ShouldEmitTheirPaginationFields() throws Exception {
+        var slice = new PaginatedResponse<>(devices, 2, true, null);
+        slice.setPageNumber(1);
+        var cursorPage = new PaginatedResponse<>(devices, 2, false, null);
+
+        JsonNode sliceJson = objectMapper.readTree(objectMapper.writeValueAsString(DevicePageResponse.slice("ok", slice)));
+        JsonNode cursorJson = objectMapper.readTree(objectMapper.writeValueAsString(DevicePageResponse.cursor("ok", cursorPage)));
+
+        assertEquals("{\"page\":1,\"size\":2,\"hasNext\":true}", sliceJson.at("/parameters/pagination").toString());
+        assertEquals("{\"size\":2,\"hasNext\":false,\"nextCursor\":null}", cursorJson.at("/parameters/pagination").toString());
+        assertEquals("Device \"2\"", cursorJson.at("/content/1/name").asText());
+    }
+}
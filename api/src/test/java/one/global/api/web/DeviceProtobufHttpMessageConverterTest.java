@@ -0,0 +1,82 @@
+package one.global.api.web;
+
+import one.global.api.domain.model.Device;
+import one.global.api.web.dto.AppResponse;
+import one.global.api.web.dto.DevicePageResponse;
+import one.global.api.web.dto.DeviceResponseDTO;
+import one.global.api.web.dto.DeviceSummaryResponseDTO;
+import one.global.api.web.dto.PaginatedResponse;
+import one.global.api.web.proto.DeviceProtobufHttpMessageConverter;
+import one.global.api.web.proto.DeviceProtos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeviceProtobufHttpMessageConverterTest {
+
+    private final DeviceProtobufHttpMessageConverter converter = new DeviceProtobufHttpMessageConverter();
+
+    private final List<Device> devices = List.of(
+            Device.reconstruct(1L, "Device1", "BrandA", "AVAILABLE", LocalDateTime.of(2025, 3, 7, 9, 5, 1)),
+            Device.reconstruct(2L, "Device2", "BrandB", "IN_USE", LocalDateTime.of(2024, 12, 31, 23, 59, 59)));
+
+    @Test
+    @DisplayName("Should write a page as a DeviceListResponse with the pagination fields of its type")
+    void write_ShouldEncodePages() throws Exception {
+        var page = DevicePageResponse.offset("Devices retrieved successfully", new PaginatedResponse<>(devices, 0, 2, 5, 3));
+        var output = new MockHttpOutputMessage();
+
+        converter.write(page, DevicePageResponse.class, ProtobufHttpMessageConverter.PROTOBUF, output);
+
+        var message = DeviceProtos.DeviceListResponse.parseFrom(output.getBodyAsBytes());
+        assertEquals("one.global.devices.v1.DeviceListResponse", output.getHeaders().getFirst("X-Protobuf-Message"));
+        assertEquals(200, message.getStatus());
+        assertEquals(2, message.getContentCount());
+        assertEquals("IN_USE", message.getContent(1).getState());
+        assertEquals("2025-03-07 09:05:01", message.getContent(0).getCreationDate());
+        assertEquals(5, message.getPagination().getTotalElements());
+        assertFalse(message.getPagination().hasHasNext());
+    }
+
+    @Test
+    @DisplayName("Should write single devices and error envelopes as a DeviceResponse")
+    void write_ShouldEncodeSingleDevicesAndErrors() throws Exception {
+        var output = new MockHttpOutputMessage();
+        converter.write(AppResponse.ok("ok", new DeviceResponseDTO(7L, "Device7", "BrandA", "AVAILABLE", "2025-01-01 12:00:00")),
+                type(DeviceResponseDTO.class), ProtobufHttpMessageConverter.PROTOBUF, output);
+        assertEquals("Device7", DeviceProtos.DeviceResponse.parseFrom(output.getBodyAsBytes()).getContent().getName());
+
+        output = new MockHttpOutputMessage();
+        converter.write(AppResponse.notFound("Device not found", "DEVICE_NOT_FOUND", "No device with id 9", null),
+                type(Object.class), ProtobufHttpMessageConverter.PROTOBUF, output);
+        var error = DeviceProtos.DeviceResponse.parseFrom(output.getBodyAsBytes());
+        assertEquals(404, error.getStatus());
+        assertEquals("DEVICE_NOT_FOUND", error.getErrors(0).getCode());
+        assertFalse(error.hasContent());
+    }
+
+    @Test
+    @DisplayName("Should only offer responses that have a message in device.proto")
+    void canWrite_ShouldDeclineOtherResponses() {
+        assertTrue(converter.canWrite(type(DeviceResponseDTO.class), AppResponse.class, ProtobufHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canWrite(ResolvableType.forClassWithGenerics(AppResponse.class,
+                ResolvableType.forClassWithGenerics(List.class, DeviceResponseDTO.class)).getType(),
+                AppResponse.class, ProtobufHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canWrite(type(DeviceSummaryResponseDTO.class), AppResponse.class, ProtobufHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canWrite(DevicePageResponse.class, DevicePageResponse.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(DevicePageResponse.class, null, ProtobufHttpMessageConverter.PROTOBUF));
+    }
+
+    private static Type type(Class<?> content) {
+        return ResolvableType.forClassWithGenerics(AppResponse.class, content).getType();
+    }
+}
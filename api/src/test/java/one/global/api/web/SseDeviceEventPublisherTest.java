@@ -0,0 +1,84 @@
+package one.global.api.web;
+
+import one.global.api.adapter.out.DeviceMapperImpl;
+import one.global.api.domain.enums.DeviceEventType;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.DeviceEvent;
+import one.global.api.web.events.SseDeviceEventPublisher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseDeviceEventPublisherTest {
+
+    private final CountDownLatch slowClientBlocked = new CountDownLatch(1);
+    private final CountDownLatch slowClientReleased = new CountDownLatch(1);
+    private final Map<SseEmitter, List<Long>> sent = new ConcurrentHashMap<>();
+    private SseEmitter slowClient;
+
+    private final SseDeviceEventPublisher publisher = new SseDeviceEventPublisher(new DeviceMapperImpl(),
+            Duration.ofMinutes(1), 2) {
+        @Override
+        protected void send(SseEmitter emitter, DeviceEvent event) {
+            sent.computeIfAbsent(emitter, key -> new CopyOnWriteArrayList<>()).add(event.sequence());
+            if (emitter == slowClient) {
+                slowClientBlocked.countDown();
+                try {
+                    slowClientReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    };
+
+    @Test
+    @DisplayName("Should keep relaying to other clients and drop a client that falls more than the buffer behind")
+    void publish_ShouldNotWaitForSlowClients() throws Exception {
+        slowClient = publisher.subscribe();
+        SseEmitter client = publisher.subscribe();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            publisher.publish(events(1, 1));
+            assertTrue(slowClientBlocked.await(5, TimeUnit.SECONDS));
+            awaitSent(client, 1);
+            publisher.publish(events(2, 3));
+            awaitSent(client, 3);
+            // the slow client still has 2 and 3 queued, so 4 overflows its buffer
+            publisher.publish(events(4, 4));
+            awaitSent(client, 4);
+            publisher.publish(events(5, 5));
+            awaitSent(client, 5);
+        });
+        slowClientReleased.countDown();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sent.get(client));
+        assertEquals(List.of(1L), sent.get(slowClient));
+    }
+
+    private void awaitSent(SseEmitter emitter, int count) throws InterruptedException {
+        for (long deadline = System.currentTimeMillis() + 5_000;
+             sent.getOrDefault(emitter, List.of()).size() < count && System.currentTimeMillis() < deadline; ) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<DeviceEvent> events(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(sequence -> new DeviceEvent(sequence, DeviceEventType.CREATED, sequence, "Device" + sequence,
+                        "BrandA", State.AVAILABLE, null, 0L, LocalDateTime.now()))
+                .toList();
+    }
+}
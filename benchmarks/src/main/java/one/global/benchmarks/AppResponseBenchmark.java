@@ -0,0 +1,57 @@
+package one.global.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.DeviceMapperImpl;
+import one.global.api.web.dto.AppResponse;
+import one.global.api.web.dto.DeviceResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppResponseBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private List<DeviceResponseDTO> page;
+    private AppResponse<List<DeviceResponseDTO>> response;
+
+    @Setup
+    public void setUp() {
+        DeviceMapper deviceMapper = new DeviceMapperImpl();
+        page = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(Fixtures::entity)
+                .map(deviceMapper::fromJpaDeviceEntityToDevice)
+                .map(deviceMapper::fromDeviceToDeviceResponseDTO)
+                .toList();
+        response = build();
+    }
+
+    @Benchmark
+    public AppResponse<List<DeviceResponseDTO>> build() {
+        return AppResponse.ok("Devices retrieved successfully", page)
+                .buildParametersPagination(0, pageSize, 10_000, 10_000 / pageSize);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(build());
+    }
+}
@@ -0,0 +1,170 @@
+package one.global.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/*
+ * Closed-loop HTTP load test against a running API: a fixed number of clients each issue a mix of lookups and list
+ * requests as fast as the server answers. Run it once against an instance started with VIRTUAL_THREADS_ENABLED=false
+ * and once with true, using the same concurrency, and compare the JSON summaries.
+ *
+ * java -cp benchmarks/target/benchmarks.jar one.global.benchmarks.DeviceApiLoadTest \
+ *      --url http://localhost:8080/global-api --clients 400 --duration 30s --label virtual
+ */
+public class DeviceApiLoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080/global-api");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "30s").toUpperCase());
+        String label = options.getOrDefault("label", "run");
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long[] ids = seedIds(httpClient, baseUrl);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        List<long[]> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = IntStream.range(0, clients)
+                    .mapToObj(client -> executor.submit(() -> runClient(httpClient, baseUrl, ids, deadline, statuses)))
+                    .toList();
+            for (var future : futures) {
+                latencies.add(future.get());
+            }
+        }
+
+        Map<String, Object> summary = summarize(label, clients, duration, statuses, latencies);
+        String json = OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(summary);
+        Path result = Path.of("target", "load-test-" + label + ".json");
+        Files.createDirectories(result.getParent());
+        Files.writeString(result, json);
+
+        System.out.println(json);
+        System.out.println("Result is saved to " + result);
+    }
+
+    private static long[] runClient(HttpClient httpClient, String baseUrl, long[] ids, long deadline,
+                                    Map<Integer, LongAdder> statuses) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        var random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < deadline) {
+            String path = random.nextInt(4) == 0
+                    ? "/devices?withTotal=false&size=20&page=" + random.nextInt(10)
+                    : "/devices/" + ids[random.nextInt(ids.length)];
+
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = elapsed;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long[] seedIds(HttpClient httpClient, String baseUrl) throws Exception {
+        JsonNode devices = getJson(httpClient, baseUrl + "/devices?withTotal=false&size=1000").get("content");
+        if (devices == null || devices.isEmpty()) {
+            var batch = IntStream.range(0, 1000)
+                    .mapToObj(i -> Map.of("name", "Load device " + i, "brand", Fixtures.brand(i)))
+                    .toList();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/devices/create/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(batch)))
+                    .build();
+            devices = OBJECT_MAPPER.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body())
+                    .at("/content/created");
+        }
+
+        long[] ids = new long[devices.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = devices.get(i).get("id").asLong();
+        }
+        if (ids.length == 0) {
+            throw new IllegalStateException("No devices available at " + baseUrl);
+        }
+        return ids;
+    }
+
+    private static JsonNode getJson(HttpClient httpClient, String url) throws Exception {
+        var response = httpClient.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        return OBJECT_MAPPER.readTree(response.body());
+    }
+
+    private static Map<String, Object> summarize(String label, int clients, Duration duration,
+                                                 Map<Integer, LongAdder> statuses, List<long[]> latencies) {
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        Map<String, Long> byStatus = new HashMap<>();
+        statuses.forEach((status, count) -> byStatus.put(String.valueOf(status), count.sum()));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("label", label);
+        summary.put("clients", clients);
+        summary.put("durationSeconds", duration.toSeconds());
+        summary.put("requests", all.length);
+        summary.put("throughputPerSecond", all.length / (double) duration.toSeconds());
+        summary.put("p50Millis", percentile(all, 0.50));
+        summary.put("p95Millis", percentile(all, 0.95));
+        summary.put("p99Millis", percentile(all, 0.99));
+        summary.put("maxMillis", all.length > 0 ? all[all.length - 1] / 1_000_000.0 : 0);
+        summary.put("statuses", byStatus);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
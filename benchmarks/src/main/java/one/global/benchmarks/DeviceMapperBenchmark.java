@@ -0,0 +1,50 @@
+package one.global.benchmarks;
+
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.DeviceMapperImpl;
+import one.global.api.adapter.out.entity.JpaDeviceEntity;
+import one.global.api.domain.model.Device;
+import one.global.api.web.dto.DeviceResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceMapperBenchmark {
+
+    private final DeviceMapper deviceMapper = new DeviceMapperImpl();
+
+    private JpaDeviceEntity entity;
+    private Device device;
+
+    @Setup
+    public void setUp() {
+        entity = Fixtures.entity(42L);
+        device = deviceMapper.fromJpaDeviceEntityToDevice(entity);
+    }
+
+    @Benchmark
+    public Device entityToDevice() {
+        return deviceMapper.fromJpaDeviceEntityToDevice(entity);
+    }
+
+    @Benchmark
+    public DeviceResponseDTO deviceToDto() {
+        return deviceMapper.fromDeviceToDeviceResponseDTO(device);
+    }
+
+    @Benchmark
+    public DeviceResponseDTO entityToDeviceToDto() {
+        return deviceMapper.fromDeviceToDeviceResponseDTO(deviceMapper.fromJpaDeviceEntityToDevice(entity));
+    }
+
+    @Benchmark
+    public JpaDeviceEntity deviceToEntity() {
+        return deviceMapper.fromDeviceToJpaDeviceEntity(device);
+    }
+}
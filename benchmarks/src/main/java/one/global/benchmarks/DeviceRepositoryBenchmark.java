@@ -0,0 +1,127 @@
+package one.global.benchmarks;
+
+import one.global.api.ApiApplication;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.DeviceMapperImpl;
+import one.global.api.adapter.out.memory.InMemoryDeviceOutboxAdapter;
+import one.global.api.adapter.out.memory.InMemoryDeviceRepositoryAdapter;
+import one.global.api.adapter.out.persistence.DeviceRespositoryAdapter;
+import one.global.api.application.port.out.DeviceRepository;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.domain.model.StateTransition;
+import one.global.api.web.dto.PaginatedResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/*
+ * The JPA and in-memory DeviceRepository adapters under the same calls. "jpa" starts the application against the
+ * database given by -Dbenchmark.datasource.url (user/password: -Dbenchmark.datasource.username/password) and empties
+ * its device tables first, so point it at a scratch database. Add -t 8 to measure concurrent writers.
+ *
+ * java -Dbenchmark.datasource.url=jdbc:postgresql://localhost:5432/bench -jar benchmarks/target/benchmarks.jar DeviceRepositoryBenchmark
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceRepositoryBenchmark {
+
+    @Param({"in-memory", "jpa"})
+    private String adapter;
+
+    @Param({"10000"})
+    private int devices;
+
+    private ConfigurableApplicationContext context;
+    private InMemoryDeviceOutboxAdapter outbox;
+    private DeviceRepository deviceRepository;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (adapter.equals("jpa")) {
+            context = new SpringApplicationBuilder(ApiApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                                    "jdbc:postgresql://localhost:5432/global_db?reWriteBatchedInserts=true"),
+                            "spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                            "spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "admin"),
+                            "logging.level.root=WARN")
+                    .run();
+            context.getBean(JdbcTemplate.class).execute("TRUNCATE TABLE device, device_outbox, device_tombstone");
+            deviceRepository = context.getBean(DeviceRespositoryAdapter.class);
+        } else {
+            outbox = new InMemoryDeviceOutboxAdapter();
+            deviceRepository = new InMemoryDeviceRepositoryAdapter(outbox);
+        }
+
+        DeviceMapper deviceMapper = new DeviceMapperImpl();
+        ids = deviceRepository.saveAll(LongStream.rangeClosed(1, devices)
+                        .mapToObj(id -> {
+                            var device = deviceMapper.fromJpaDeviceEntityToDevice(Fixtures.entity(id));
+                            device.setId(null);
+                            return device;
+                        })
+                        .toList())
+                .stream().mapToLong(Device::getId).toArray();
+    }
+
+    /*The application prunes the JPA outbox itself; nothing prunes the in-memory one here.*/
+    @TearDown(Level.Iteration)
+    public void pruneOutbox() {
+        if (outbox != null) {
+            outbox.prune(Duration.ZERO);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Device findById() {
+        return deviceRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public PaginatedResponse<Device> findSliceByBrandAndState() {
+        return deviceRepository.findSlice(DeviceFilter.of("Brand7", State.AVAILABLE), DeviceSort.DEFAULT, 0, 10);
+    }
+
+    @Benchmark
+    public PaginatedResponse<Device> findAllAfterCursor() {
+        return deviceRepository.findAllAfter(DeviceFilter.NONE, DeviceSort.DEFAULT, randomId(), 10);
+    }
+
+    @Benchmark
+    public StateTransition transitionState() {
+        State state = Fixtures.STATES[ThreadLocalRandom.current().nextInt(Fixtures.STATES.length)];
+        return deviceRepository.transitionState(randomId(), state, null);
+    }
+
+    @Benchmark
+    public Device save() {
+        return deviceRepository.save(new Device("Device", Fixtures.brand(ThreadLocalRandom.current().nextInt())));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
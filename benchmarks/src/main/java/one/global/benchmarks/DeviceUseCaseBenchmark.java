@@ -0,0 +1,88 @@
+package one.global.benchmarks;
+
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.DeviceMapperImpl;
+import one.global.api.adapter.out.memory.InMemoryDeviceOutboxAdapter;
+import one.global.api.adapter.out.memory.InMemoryDeviceRepositoryAdapter;
+import one.global.api.application.service.DeviceCountCache;
+import one.global.api.application.service.DeviceUserCaseService;
+import one.global.api.application.validation.NameBrandValidation;
+import one.global.api.domain.enums.State;
+import one.global.api.domain.model.Device;
+import one.global.api.domain.model.DeviceFilter;
+import one.global.api.domain.model.DeviceSort;
+import one.global.api.web.dto.PaginatedResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceUseCaseBenchmark {
+
+    @Param({"10000"})
+    private int devices;
+
+    private DeviceUserCaseService deviceUserCaseService;
+    private String cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        DeviceMapper deviceMapper = new DeviceMapperImpl();
+        var deviceRepository = new InMemoryDeviceRepositoryAdapter(new InMemoryDeviceOutboxAdapter());
+        deviceRepository.saveAll(LongStream.rangeClosed(1, devices)
+                .mapToObj(id -> {
+                    var device = deviceMapper.fromJpaDeviceEntityToDevice(Fixtures.entity(id));
+                    device.setId(null);
+                    return device;
+                })
+                .toList());
+
+        deviceUserCaseService = new DeviceUserCaseService(deviceRepository, List.of(new NameBrandValidation()),
+                new DeviceCountCache(deviceRepository, Duration.ofHours(1)));
+        cursor = deviceUserCaseService.getAllDevices(DeviceFilter.NONE, DeviceSort.DEFAULT, "", 10).getNextCursor();
+    }
+
+    @Benchmark
+    public Device getDeviceById() {
+        return deviceUserCaseService.getDeviceById(randomId());
+    }
+
+    @Benchmark
+    public PaginatedResponse<Device> getAllDevicesWithTotal() {
+        return deviceUserCaseService.getAllDevices("Brand7", State.AVAILABLE, 0, 10, true);
+    }
+
+    @Benchmark
+    public PaginatedResponse<Device> getAllDevicesWithoutTotal() {
+        return deviceUserCaseService.getAllDevices("Brand7", State.AVAILABLE, 0, 10, false);
+    }
+
+    @Benchmark
+    public PaginatedResponse<Device> getAllDevicesAfterCursor() {
+        return deviceUserCaseService.getAllDevices(DeviceFilter.NONE, DeviceSort.DEFAULT, cursor, 10);
+    }
+
+    @Benchmark
+    public Device createDevice() {
+        return deviceUserCaseService.createDevice("Device", Fixtures.brand(ThreadLocalRandom.current().nextInt()));
+    }
+
+    @Benchmark
+    public Device partiallyUpdateDevice() {
+        State state = Fixtures.STATES[ThreadLocalRandom.current().nextInt(Fixtures.STATES.length)];
+        return deviceUserCaseService.partiallyUpdateDevice(randomId(), null, null, state);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, devices + 1);
+    }
+}
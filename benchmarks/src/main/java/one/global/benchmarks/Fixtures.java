@@ -0,0 +1,25 @@
+package one.global.benchmarks;
+
+import one.global.api.adapter.out.entity.JpaDeviceEntity;
+import one.global.api.domain.enums.State;
+
+import java.time.LocalDateTime;
+
+final class Fixtures {
+
+    static final int BRANDS = 50;
+    static final State[] STATES = State.values();
+    static final LocalDateTime CREATION_DATE = LocalDateTime.of(2025, 1, 1, 12, 30, 15);
+
+    private Fixtures() {
+    }
+
+    static String brand(int index) {
+        return "Brand" + Math.floorMod(index, BRANDS);
+    }
+
+    static JpaDeviceEntity entity(long id) {
+        return new JpaDeviceEntity(id, "Device " + id, brand((int) id), STATES[(int) (id % STATES.length)].name(),
+                CREATION_DATE, 0L, id, CREATION_DATE);
+    }
+}
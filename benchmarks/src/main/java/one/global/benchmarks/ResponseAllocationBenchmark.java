@@ -0,0 +1,68 @@
+package one.global.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.DeviceMapperImpl;
+import one.global.api.domain.model.Device;
+import one.global.api.web.dto.AppResponse;
+import one.global.api.web.dto.DevicePageResponse;
+import one.global.api.web.dto.DeviceResponseDTO;
+import one.global.api.web.dto.PaginatedResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/*
+ * Builds and writes one list response the way the controller does, comparing AppResponse + DTO mapping with the
+ * record envelope. Run with -prof gc and compare gc.alloc.rate.norm (bytes per page):
+ *
+ * java -jar benchmarks/target/benchmarks.jar ResponseAllocationBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseAllocationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+    private final DeviceMapper deviceMapper = new DeviceMapperImpl();
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    private PaginatedResponse<Device> page;
+
+    @Setup
+    public void setUp() {
+        List<Device> devices = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(Fixtures::entity)
+                .map(deviceMapper::fromJpaDeviceEntityToDevice)
+                .toList();
+        page = new PaginatedResponse<>(devices, 0, pageSize, 10_000, 10_000 / pageSize);
+    }
+
+    @Benchmark
+    public void appResponse() throws Exception {
+        List<DeviceResponseDTO> content = page.getContent().stream()
+                .map(deviceMapper::fromDeviceToDeviceResponseDTO)
+                .toList();
+        objectMapper.writeValue(sink, AppResponse.ok("Devices retrieved successfully", content)
+                .buildParametersPagination(page.getPageNumber(), page.getPageSize(),
+                        page.getTotalElements(), page.getTotalPages()));
+    }
+
+    @Benchmark
+    public void devicePageResponse() throws Exception {
+        objectMapper.writeValue(sink, DevicePageResponse.offset("Devices retrieved successfully", page));
+    }
+}
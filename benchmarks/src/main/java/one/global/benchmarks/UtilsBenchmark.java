@@ -0,0 +1,36 @@
+package one.global.benchmarks;
+
+import one.global.api.Utils.Utils;
+import one.global.api.domain.enums.State;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+
+    @Param({"AVAILABLE", "in_use", ""})
+    private String state;
+
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        cursor = Utils.encodeCursor(123_456L);
+    }
+
+    @Benchmark
+    public State getValidState() {
+        return Utils.getValidState(state);
+    }
+
+    @Benchmark
+    public Long decodeCursor() {
+        return Utils.decodeCursor(cursor);
+    }
+}
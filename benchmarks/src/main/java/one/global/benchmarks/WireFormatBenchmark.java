@@ -0,0 +1,84 @@
+package one.global.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import one.global.api.adapter.out.DeviceMapper;
+import one.global.api.adapter.out.DeviceMapperImpl;
+import one.global.api.domain.model.Device;
+import one.global.api.web.dto.DevicePageResponse;
+import one.global.api.web.dto.PaginatedResponse;
+import one.global.api.web.proto.DeviceProtobufHttpMessageConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/*
+ * Writes the GET /devices page in each format the API negotiates, the way the message converters do. The payload size
+ * of each format is printed once per trial ("bytes per page"); time per page is the score:
+ *
+ * java -jar benchmarks/target/benchmarks.jar WireFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    public enum Format {JSON, CBOR, SMILE, PROTOBUF}
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param
+    private Format format;
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    private ObjectMapper objectMapper;
+    private DevicePageResponse page;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case CBOR -> new ObjectMapper(new CBORFactory());
+            case SMILE -> new ObjectMapper(new SmileFactory());
+            default -> JsonMapper.builder().build();
+        };
+        objectMapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        DeviceMapper deviceMapper = new DeviceMapperImpl();
+        List<Device> devices = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(Fixtures::entity)
+                .map(deviceMapper::fromJpaDeviceEntityToDevice)
+                .toList();
+        page = DevicePageResponse.offset("Devices retrieved successfully",
+                new PaginatedResponse<>(devices, 0, pageSize, 10_000, 10_000 / pageSize));
+
+        var bytes = new ByteArrayOutputStream();
+        write(bytes);
+        System.out.printf("%n%s, %d devices: %d bytes per page%n", format, pageSize, bytes.size());
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        write(sink);
+    }
+
+    private void write(OutputStream out) throws IOException {
+        if (format == Format.PROTOBUF) {
+            DeviceProtobufHttpMessageConverter.toMessage(page).writeTo(out);
+        } else {
+            objectMapper.writeValue(out, page);
+        }
+    }
+}